@@ -1,7 +1,10 @@
 package br.challenge.softdesign.application.controller;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 
 import java.time.LocalDate;
 import java.util.UUID;
@@ -21,13 +24,23 @@ public record CreateRuling (@Schema(description = "Unique identifier of the ruli
                             @JsonProperty(value = "end_date", required = true) LocalDate endDate,
 
                             @Schema(description = "Status of the ruling", example = "OPEN", defaultValue = "OPEN", allowableValues = {"OPEN", "CLOSED"})
-                            @JsonProperty(defaultValue = "OPEN") RulingStatus status){
+                            @JsonProperty(defaultValue = "OPEN") RulingStatus status,
+
+                            @Schema(description = "Number of counter slots used to spread the vote counting of a hot ruling", example = "1", defaultValue = "1")
+                            @Min(value = 1, message = "Counter shards must be at least 1")
+                            @Max(value = 64, message = "Counter shards must be at most 64")
+                            @JsonInclude(JsonInclude.Include.NON_NULL)
+                            @JsonProperty("counter_shards") Integer counterShards){
 
     public CreateRuling (String title, String description, LocalDate endDate){
-        this(null, title, description, endDate, RulingStatus.OPEN);
+        this(null, title, description, endDate, RulingStatus.OPEN, null);
     }
 
     public CreateRuling (UUID uuid, String title, String description, LocalDate endDate){
-        this(uuid, title, description, endDate, RulingStatus.OPEN);
+        this(uuid, title, description, endDate, RulingStatus.OPEN, null);
+    }
+
+    public CreateRuling (String title, String description, LocalDate endDate, Integer counterShards){
+        this(null, title, description, endDate, RulingStatus.OPEN, counterShards);
     }
 }
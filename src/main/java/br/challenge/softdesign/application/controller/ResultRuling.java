@@ -1,5 +1,6 @@
 package br.challenge.softdesign.application.controller;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 
@@ -24,4 +25,15 @@ public record ResultRuling (@Schema(description = "Unique identifier of the ruli
                             @Schema(description = "Result", example = "Approved", allowableValues = {"Approved", "Rejected, Still counting votes"})
                             String result) {
 
+    public static final String STILL_COUNTING_VOTES = "Still counting votes";
+
+    @JsonIgnore
+    public boolean isFinal() {
+        return !STILL_COUNTING_VOTES.equals(result);
+    }
+
+    @JsonIgnore
+    public String version() {
+        return votesFor + "-" + votesAgainst + (isFinal() ? "-final" : "");
+    }
 }
\ No newline at end of file
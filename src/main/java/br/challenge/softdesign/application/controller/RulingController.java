@@ -1,21 +1,35 @@
 package br.challenge.softdesign.application.controller;
 
+import br.challenge.softdesign.domain.adapters.service.NotFoundRulingException;
+import br.challenge.softdesign.domain.adapters.service.RulingResultBroadcaster;
 import br.challenge.softdesign.domain.adapters.service.RulingService;
+import br.challenge.softdesign.domain.adapters.service.ValidationRulingException;
+import br.challenge.softdesign.domain.adapters.service.VoteExportFormat;
+import br.challenge.softdesign.domain.adapters.service.VoteExporter;
+import br.challenge.softdesign.domain.adapters.service.VoteIngestionPipeline;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Parameters;
 import io.swagger.v3.oas.annotations.info.Info;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @OpenAPIDefinition(info = @Info(title = "Ruling API", version = "1", description = "API to manage rulings and votes"))
@@ -28,11 +42,34 @@ import java.util.UUID;
 )
 public class RulingController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final RulingService rulingService;
+    private final Optional<VoteIngestionPipeline> voteIngestionPipeline;
+    private final VoteExporter voteExporter;
+    private final RulingResultBroadcaster rulingResultBroadcaster;
+    private final int maxBatchSize;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final Duration closedResultMaxAge;
 
     @Autowired
-    public RulingController(RulingService rulingService) {
+    public RulingController(RulingService rulingService,
+                            Optional<VoteIngestionPipeline> voteIngestionPipeline,
+                            VoteExporter voteExporter,
+                            RulingResultBroadcaster rulingResultBroadcaster,
+                            @Value("${ruling.vote.batch.max-size:5000}") int maxBatchSize,
+                            @Value("${ruling.listing.default-limit:50}") int defaultPageSize,
+                            @Value("${ruling.listing.max-limit:500}") int maxPageSize,
+                            @Value("${ruling.result.closed-max-age:1h}") Duration closedResultMaxAge) {
         this.rulingService = rulingService;
+        this.voteIngestionPipeline = voteIngestionPipeline;
+        this.voteExporter = voteExporter;
+        this.rulingResultBroadcaster = rulingResultBroadcaster;
+        this.maxBatchSize = maxBatchSize;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.closedResultMaxAge = closedResultMaxAge;
     }
 
     @Operation(summary = "Create a new ruling")
@@ -56,8 +93,10 @@ public class RulingController {
     @Operation(summary = "Vote on a ruling")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Vote registered successfully"),
+            @ApiResponse(responseCode = "202", description = "Vote queued for registration; the body is the receipt id (asynchronous mode)"),
             @ApiResponse(responseCode = "400", description = "Invalid request; Ruling is closed; Duplicated vote"),
-            @ApiResponse(responseCode = "404", description = "Ruling not found")
+            @ApiResponse(responseCode = "404", description = "Ruling not found"),
+            @ApiResponse(responseCode = "503", description = "Vote queue is full (asynchronous mode)")
     })
     @io.swagger.v3.oas.annotations.parameters.RequestBody(
             description = "Vote data",
@@ -68,12 +107,47 @@ public class RulingController {
     )
     @PostMapping(value = "/vote")
     public ResponseEntity<UUID> createVote(@RequestBody @Valid VoteOnRuling voteOnRuling) {
+        if (voteIngestionPipeline.isPresent()) {
+            return ResponseEntity.accepted().body(voteIngestionPipeline.get().submit(voteOnRuling));
+        }
         return ResponseEntity.ok(rulingService.tallyVoteForRuling(voteOnRuling));
     }
 
-    @Operation(summary = "List all rulings")
+    @Operation(summary = "Vote on rulings in bulk")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Rulings listed successfully"),
+            @ApiResponse(responseCode = "200", description = "Votes processed; the body has one outcome per submitted vote, in the same order"),
+            @ApiResponse(responseCode = "400", description = "Invalid request; Too many votes in one batch")
+    })
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "List of votes",
+            required = true,
+            content = @Content(
+                    array = @ArraySchema(schema = @Schema(implementation = VoteOnRuling.class))
+            )
+    )
+    @PostMapping(value = "/vote/batch")
+    public ResponseEntity<List<VoteOutcome>> createVotes(@RequestBody List<VoteOnRuling> votesOnRuling) {
+        if (votesOnRuling.size() > maxBatchSize) {
+            throw new ValidationRulingException(String.format("A batch can not have more than %d votes.", maxBatchSize));
+        }
+        return ResponseEntity.ok(rulingService.tallyVotes(votesOnRuling));
+    }
+
+    @Operation(summary = "Get the outcome of a vote submitted in asynchronous mode")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Vote outcome retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Vote receipt not found")
+    })
+    @GetMapping("/vote/{receipt:[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[1-8][0-9a-fA-F]{3}-[89abAB][0-9a-fA-F]{3}-[0-9a-fA-F]{12}}")
+    public ResponseEntity<VoteOutcome> voteOutcome(@PathVariable UUID receipt) {
+        return voteIngestionPipeline.flatMap(pipeline -> pipeline.outcomeOf(receipt))
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new NotFoundRulingException("Vote receipt not found"));
+    }
+
+    @Operation(summary = "List rulings, one page at a time")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rulings listed successfully; the X-Next-Cursor header has the value of 'after' for the next page"),
             @ApiResponse(responseCode = "400", description = "Invalid request")
     })
     @Parameters({
@@ -86,22 +160,70 @@ public class RulingController {
                     name = "status",
                     description = "Ruling status",
                     schema = @Schema(type = "string", allowableValues = {"OPEN", "CLOSED"})
+            ),
+            @Parameter(
+                    name = "after",
+                    description = "Cursor returned in the X-Next-Cursor header of the previous page",
+                    schema = @Schema(type = "string", format = "uuid")
+            ),
+            @Parameter(
+                    name = "limit",
+                    description = "Maximum number of rulings in the page",
+                    schema = @Schema(type = "integer", defaultValue = "50")
             )
     })
     @GetMapping
-    public ResponseEntity<List<CreateRuling>> listing(@RequestParam(required = false) final UUID uuid, @RequestParam final RulingStatus status) {
-        return ResponseEntity.ok(rulingService.listOfRuling(uuid, RulingStatus.OPEN.equals(status)));
+    public ResponseEntity<List<CreateRuling>> listing(@RequestParam(required = false) final UUID uuid,
+                                                      @RequestParam final RulingStatus status,
+                                                      @RequestParam(required = false) final UUID after,
+                                                      @RequestParam(required = false) final Integer limit) {
+        final var available = RulingStatus.OPEN.equals(status);
+        if (uuid != null) {
+            return ResponseEntity.ok(rulingService.listOfRuling(uuid, available));
+        }
+
+        final var pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new ValidationRulingException(String.format("The limit must be between 1 and %d.", maxPageSize));
+        }
+        final var page = rulingService.pageOfRulings(available, after, pageSize);
+        final var response = ResponseEntity.ok();
+        page.nextCursor().ifPresent(cursor -> response.header(NEXT_CURSOR_HEADER, cursor.toString()));
+        return response.body(page.rulings());
     }
 
     @Operation(summary = "Get the result of a ruling")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Ruling result retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Ruling result did not change since the ETag sent in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Invalid request"),
             @ApiResponse(responseCode = "404", description = "Ruling not found")
     })
-    @GetMapping("/{uuid:[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[1-5][0-9a-fA-F]{3}-[89abAB][0-9a-fA-F]{3}-[0-9a-fA-F]{12}}/result")
+    @GetMapping("/{uuid:[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[1-8][0-9a-fA-F]{3}-[89abAB][0-9a-fA-F]{3}-[0-9a-fA-F]{12}}/result")
     public ResponseEntity<ResultRuling> result(@PathVariable UUID uuid) {
-        return ResponseEntity.ok(rulingService.resultOfRuling(uuid));
+        final var result = rulingService.resultOfRuling(uuid);
+        // a closed ruling can still be reopened before its end date, so its result is cached for a while instead of forever
+        final var cacheControl = result.isFinal()
+                ? CacheControl.maxAge(closedResultMaxAge).cachePublic()
+                : CacheControl.noCache();
+        // Spring answers 304 when the ETag matches If-None-Match
+        return ResponseEntity.ok()
+                .eTag(result.version())
+                .cacheControl(cacheControl)
+                .body(result);
+    }
+
+    @Operation(summary = "Stream the result of a ruling as Server-Sent Events")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ruling result streamed; a new result event is sent after votes are counted"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "404", description = "Ruling not found")
+    })
+    @GetMapping(value = "/{uuid:[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[1-8][0-9a-fA-F]{3}-[89abAB][0-9a-fA-F]{3}-[0-9a-fA-F]{12}}/result/stream",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter resultStream(@PathVariable UUID uuid,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return rulingResultBroadcaster.subscribe(uuid, lastEventId);
     }
 
     @Operation(summary = "Open a ruling")
@@ -110,7 +232,7 @@ public class RulingController {
             @ApiResponse(responseCode = "400", description = "Invalid request"),
             @ApiResponse(responseCode = "404", description = "Ruling not found")
     })
-    @GetMapping("/{uuid:[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[1-5][0-9a-fA-F]{3}-[89abAB][0-9a-fA-F]{3}-[0-9a-fA-F]{12}}/open")
+    @GetMapping("/{uuid:[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[1-8][0-9a-fA-F]{3}-[89abAB][0-9a-fA-F]{3}-[0-9a-fA-F]{12}}/open")
     public void openRuling(@PathVariable UUID uuid) {
         rulingService.openRuling(uuid);
     }
@@ -121,9 +243,31 @@ public class RulingController {
             @ApiResponse(responseCode = "400", description = "Invalid request"),
             @ApiResponse(responseCode = "404", description = "Ruling not found")
     })
-    @GetMapping("/{uuid:[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[1-5][0-9a-fA-F]{3}-[89abAB][0-9a-fA-F]{3}-[0-9a-fA-F]{12}}/close")
+    @GetMapping("/{uuid:[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[1-8][0-9a-fA-F]{3}-[89abAB][0-9a-fA-F]{3}-[0-9a-fA-F]{12}}/close")
     public void closeRuling(@PathVariable UUID uuid) {
         rulingService.closeRuling(uuid);
     }
 
+    @Operation(summary = "Export every vote of a closed ruling as NDJSON or CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Votes streamed successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid request; The ruling is still open"),
+            @ApiResponse(responseCode = "404", description = "Ruling not found")
+    })
+    @Parameter(
+            name = "format",
+            description = "Export format",
+            schema = @Schema(type = "string", allowableValues = {"NDJSON", "CSV"}, defaultValue = "NDJSON")
+    )
+    @GetMapping(value = "/{uuid:[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[1-8][0-9a-fA-F]{3}-[89abAB][0-9a-fA-F]{3}-[0-9a-fA-F]{12}}/votes/export",
+            produces = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<StreamingResponseBody> exportVotes(@PathVariable UUID uuid,
+                                                             @RequestParam(defaultValue = "NDJSON") final VoteExportFormat format) {
+        voteExporter.checkExportable(uuid);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"votes-" + uuid + "." + format.name().toLowerCase() + "\"")
+                .body(outputStream -> voteExporter.export(uuid, format, outputStream));
+    }
+
 }
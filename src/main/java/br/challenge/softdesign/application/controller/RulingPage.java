@@ -0,0 +1,8 @@
+package br.challenge.softdesign.application.controller;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public record RulingPage(List<CreateRuling> rulings, Optional<UUID> nextCursor) {
+}
@@ -2,6 +2,7 @@ package br.challenge.softdesign.application.controller;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 
 import java.util.UUID;
@@ -11,6 +12,7 @@ public record VoteOnRuling(@Schema(description = "Unique identifier of the rulin
                            @JsonProperty(value = "ruling_id", required = true) UUID rulingId,
 
                            @Schema(description = "CPF of the voter", example = "123.456.789-00")
+                           @NotNull(message = "CPF must be in the format XXX.XXX.XXX-XX")
                            @Pattern(regexp = "^\\d{3}\\.\\d{3}\\.\\d{3}-\\d{2}$", message = "CPF must be in the format XXX.XXX.XXX-XX") @JsonProperty(required = true) String cpf,
 
                            @Schema(description = "Vote in favor of the ruling", example = "true")
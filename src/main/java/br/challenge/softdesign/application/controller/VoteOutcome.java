@@ -0,0 +1,31 @@
+package br.challenge.softdesign.application.controller;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(name = "Model to return the outcome of a vote")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record VoteOutcome(@Schema(description = "Status of the vote", example = "ACCEPTED", allowableValues = {"PENDING", "ACCEPTED", "REJECTED"})
+                          VoteStatus status,
+
+                          @Schema(description = "Unique identifier of the registered vote", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+                          @JsonProperty("vote_id") UUID voteId,
+
+                          @Schema(description = "Reason why the vote was rejected", example = "The vote has already been registered.")
+                          String reason) {
+
+    public static VoteOutcome pending() {
+        return new VoteOutcome(VoteStatus.PENDING, null, null);
+    }
+
+    public static VoteOutcome accepted(UUID voteId) {
+        return new VoteOutcome(VoteStatus.ACCEPTED, voteId, null);
+    }
+
+    public static VoteOutcome rejected(String reason) {
+        return new VoteOutcome(VoteStatus.REJECTED, null, reason);
+    }
+}
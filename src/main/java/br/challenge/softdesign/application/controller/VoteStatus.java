@@ -0,0 +1,5 @@
+package br.challenge.softdesign.application.controller;
+
+public enum VoteStatus {
+    PENDING, ACCEPTED, REJECTED
+}
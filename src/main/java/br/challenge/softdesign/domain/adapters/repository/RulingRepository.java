@@ -1,7 +1,11 @@
 package br.challenge.softdesign.domain.adapters.repository;
 
+import br.challenge.softdesign.infrastracture.OpenRuling;
 import br.challenge.softdesign.infrastracture.Ruling;
+import br.challenge.softdesign.infrastracture.RulingSummary;
+import br.challenge.softdesign.infrastracture.VoteTally;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,8 +14,36 @@ public interface RulingRepository {
 
     List<Ruling> listAll(Boolean available);
 
+    List<RulingSummary> listPage(boolean available, UUID after, int limit);
+
+    List<OpenRuling> listOpen();
+
+    Optional<OpenRuling> findOpen(UUID uuid);
+
     Optional<Ruling> findById(UUID uuid);
 
+    Optional<LocalDate> findEndDate(UUID uuid);
+
     UUID save(Ruling ruling);
 
+    void updateAvailable(UUID uuid, boolean available);
+
+    boolean countVotes(UUID uuid, int votesInFavor, int votesAgainst);
+
+    void applyVotes(UUID uuid, int votesInFavor, int votesAgainst);
+
+    boolean isOpenForVoting(UUID uuid);
+
+    boolean lockOpenForVoting(UUID uuid);
+
+    void createCounterShards(UUID uuid, int counterShards);
+
+    VoteTally sumCounterShards(UUID uuid);
+
+    Optional<VoteTally> findResult(UUID uuid);
+
+    boolean saveResult(UUID uuid, VoteTally result);
+
+    void deleteResult(UUID uuid);
+
 }
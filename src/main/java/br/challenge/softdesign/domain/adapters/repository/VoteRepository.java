@@ -1,13 +1,32 @@
 package br.challenge.softdesign.domain.adapters.repository;
 
+import br.challenge.softdesign.infrastracture.ExportedVote;
 import br.challenge.softdesign.infrastracture.Vote;
+import br.challenge.softdesign.infrastracture.VoteTally;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 public interface VoteRepository {
 
-    boolean existsVoteByCpfAndRulingUuid(String cpf, String rulingUuid);
+    boolean existsVoteByCpfAndRulingUuid(long cpf, UUID rulingUuid);
 
-    UUID save(Vote vote);
+    Optional<UUID> save(Vote vote);
+
+    List<Optional<UUID>> saveAll(List<Vote> votes);
+
+    void forEachCpf(UUID rulingUuid, LongConsumer consumer);
+
+    void forEachVote(UUID rulingUuid, Consumer<ExportedVote> consumer);
+
+    VoteTally countVotes(UUID rulingUuid);
+
+    List<UUID> findRulingsToArchive(LocalDate endedBefore, int limit);
+
+    int archive(UUID rulingUuid);
 
 }
@@ -0,0 +1,56 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+/**
+ * Converts between the {@code XXX.XXX.XXX-XX} format used by the API and the 11-digit number stored in the
+ * {@code vote} table.
+ */
+public final class Cpf {
+
+    private static final int DIGITS = 11;
+    private static final int FORMATTED_LENGTH = 14;
+
+    private Cpf() {
+    }
+
+    public static long parse(String cpf) {
+        if (cpf == null || cpf.length() != FORMATTED_LENGTH
+                || cpf.charAt(3) != '.' || cpf.charAt(7) != '.' || cpf.charAt(11) != '-') {
+            throw invalid();
+        }
+        long value = 0;
+        for (int i = 0; i < FORMATTED_LENGTH; i++) {
+            if (i == 3 || i == 7 || i == 11) {
+                continue;
+            }
+            final var digit = cpf.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid();
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    public static String format(long cpf) {
+        final var formatted = new char[FORMATTED_LENGTH];
+        var remaining = cpf;
+        for (int i = FORMATTED_LENGTH - 1; i >= 0; i--) {
+            if (i == 3 || i == 7) {
+                formatted[i] = '.';
+            } else if (i == 11) {
+                formatted[i] = '-';
+            } else {
+                formatted[i] = (char) ('0' + remaining % 10);
+                remaining /= 10;
+            }
+        }
+        if (cpf < 0 || remaining != 0) {
+            throw new IllegalArgumentException("CPF must have at most " + DIGITS + " digits: " + cpf);
+        }
+        return new String(formatted);
+    }
+
+    private static ValidationRulingException invalid() {
+        return new ValidationRulingException("CPF must be in the format XXX.XXX.XXX-XX");
+    }
+}
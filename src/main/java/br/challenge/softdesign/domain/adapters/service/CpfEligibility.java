@@ -0,0 +1,7 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+public enum CpfEligibility {
+    ABLE_TO_VOTE,
+    UNABLE_TO_VOTE,
+    PROVISIONALLY_ABLE_TO_VOTE
+}
@@ -0,0 +1,7 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+public enum CpfValidatorDegradedPolicy {
+    FAIL_FAST,
+    PROVISIONAL,
+    CACHE_ONLY
+}
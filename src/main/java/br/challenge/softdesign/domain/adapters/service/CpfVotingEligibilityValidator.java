@@ -1,47 +1,151 @@
 package br.challenge.softdesign.domain.adapters.service;
 
 import br.challenge.softdesign.application.controller.VoteOnRuling;
+import br.challenge.softdesign.infrastracture.configuration.CpfEligibilityCacheProperties;
+import br.challenge.softdesign.infrastracture.configuration.CpfValidatorProperties;
+import br.challenge.softdesign.infrastracture.configuration.CpfValidatorResilienceProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
-import java.util.function.Consumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+@Component
 public class CpfVotingEligibilityValidator {
 
     private static final Logger logger = Logger.getLogger(CpfVotingEligibilityValidator.class.getName());
 
-    public static Optional<UUID> validate(final VoteOnRuling voteOnRuling, Consumer<VoteOnRuling> checkDuplicateVote) {
-        checkDuplicateVote.accept(voteOnRuling);
+    private final RestTemplate cpfValidatorRestTemplate;
+    private final CpfValidatorProperties properties;
+    private final Cache<Long, CpfEligibility> cpfEligibilityCache;
+    private final CpfEligibilityCacheProperties cacheProperties;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final CpfValidatorDegradedPolicy degradedPolicy;
+    private final Map<Long, CompletableFuture<CpfEligibility>> inFlightByCpf = new ConcurrentHashMap<>();
 
-        String baseUrl = System.getenv("CPF_VALIDATOR_URL");
-        if (baseUrl == null || baseUrl.isEmpty()) {
-            return Optional.of(voteOnRuling.rulingId());
+    @Autowired
+    public CpfVotingEligibilityValidator(RestTemplate cpfValidatorRestTemplate,
+                                         CpfValidatorProperties properties,
+                                         Cache<Long, CpfEligibility> cpfEligibilityCache,
+                                         CpfEligibilityCacheProperties cacheProperties,
+                                         CircuitBreaker cpfValidatorCircuitBreaker,
+                                         Bulkhead cpfValidatorBulkhead,
+                                         CpfValidatorResilienceProperties resilienceProperties) {
+        this.cpfValidatorRestTemplate = cpfValidatorRestTemplate;
+        this.properties = properties;
+        this.cpfEligibilityCache = cpfEligibilityCache;
+        this.cacheProperties = cacheProperties;
+        this.circuitBreaker = cpfValidatorCircuitBreaker;
+        this.bulkhead = cpfValidatorBulkhead;
+        this.degradedPolicy = resilienceProperties.degradedPolicy();
+    }
+
+    public CpfEligibility validate(final VoteOnRuling voteOnRuling) {
+        if (!properties.isEnabled()) {
+            return CpfEligibility.ABLE_TO_VOTE;
+        }
+
+        final var eligibility = eligibilityOf(Cpf.parse(voteOnRuling.cpf()));
+        if (eligibility == CpfEligibility.UNABLE_TO_VOTE) {
+            throw new ValidationRulingException("CPF is not able to vote.");
+        }
+        return eligibility;
+    }
+
+    private CpfEligibility eligibilityOf(long cpf) {
+        final var cached = cacheProperties.enabled() ? cpfEligibilityCache.getIfPresent(cpf) : null;
+        if (cached != null && isFresh(cpf)) {
+            return cached;
         }
 
+        try {
+            return fetchEligibilityOnce(cpf);
+        } catch (CallNotPermittedException | BulkheadFullException | UnavailableRulingException | HttpServerErrorException exception) {
+            logger.log(Level.WARNING, "CPF validation service is degraded: " + exception.getMessage());
+            return switch (degradedPolicy) {
+                case PROVISIONAL -> CpfEligibility.PROVISIONALLY_ABLE_TO_VOTE;
+                case CACHE_ONLY -> Optional.ofNullable(cached).orElseThrow(this::unavailable);
+                case FAIL_FAST -> throw unavailable();
+            };
+        }
+    }
 
-        return Optional.of(voteOnRuling)
-                .map(VoteOnRuling::cpf)
-                .map(cpf -> String.format("%s/users/%s", baseUrl, cpf))
-                .map(url -> {
+    private CpfEligibility fetchEligibilityOnce(long cpf) {
+        final var call = new CompletableFuture<CpfEligibility>();
+        final var inFlight = inFlightByCpf.putIfAbsent(cpf, call);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException exception) {
+                if (exception.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw exception;
+            }
+        }
+
+        try {
+            final var eligibility = Bulkhead.decorateSupplier(bulkhead,
+                    CircuitBreaker.decorateSupplier(circuitBreaker, () -> fetchEligibility(cpf))).get();
+            if (cacheProperties.enabled()) {
+                cpfEligibilityCache.put(cpf, eligibility);
+            }
+            call.complete(eligibility);
+            return eligibility;
+        } catch (RuntimeException exception) {
+            call.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            inFlightByCpf.remove(cpf, call);
+        }
+    }
+
+    private boolean isFresh(long cpf) {
+        return cpfEligibilityCache.policy().expireVariably()
+                .flatMap(expiry -> expiry.getExpiresAfter(cpf))
+                .map(remaining -> remaining.compareTo(cacheProperties.staleGrace()) > 0)
+                .orElse(false);
+    }
+
+    private UnavailableRulingException unavailable() {
+        return new UnavailableRulingException("CPF validation service is unavailable. Try again later.");
+    }
+
+    private CpfEligibility fetchEligibility(long cpf) {
+        return Optional.of(Cpf.format(cpf))
+                .map(value -> {
                     try {
-                        final var restTemplate = new RestTemplate();
-                        return restTemplate.exchange(url, HttpMethod.GET, null, VoterInfoResponse.class);
+                        return cpfValidatorRestTemplate.exchange("/users/{cpf}", HttpMethod.GET, null, VoterInfoResponse.class, value);
                     } catch (HttpClientErrorException exception) {
                         logger.log(Level.WARNING, exception.getMessage());
                         throw exception;
+                    } catch (ResourceAccessException exception) {
+                        logger.log(Level.WARNING, exception.getMessage());
+                        throw unavailable();
                     }
                 })
                 .filter(response -> response != null && response.getStatusCode().is2xxSuccessful())
                 .map(response -> {
                     return switch (response.getBody().status()) {
-                        case "ABLE_TO_VOTE" -> Optional.of(voteOnRuling.rulingId());
-                        case "UNABLE_TO_VOTE" -> throw new ValidationRulingException("CPF is not able to vote.");
+                        case "ABLE_TO_VOTE" -> CpfEligibility.ABLE_TO_VOTE;
+                        case "UNABLE_TO_VOTE" -> CpfEligibility.UNABLE_TO_VOTE;
                         default -> throw new ValidationRulingException("CPF validation status not found.");
                     };
                 })
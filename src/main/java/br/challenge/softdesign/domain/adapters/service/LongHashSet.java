@@ -0,0 +1,84 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing set of primitive {@code long} values, used for the voter CPFs handled while processing a
+ * request. Not thread-safe.
+ */
+public class LongHashSet {
+
+    private static final long EMPTY = 0L;
+
+    private long[] slots;
+    private boolean containsEmpty;
+    private int size;
+
+    public LongHashSet(int expectedSize) {
+        slots = new long[capacityFor(expectedSize)];
+    }
+
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            final var added = !containsEmpty;
+            containsEmpty = true;
+            size += added ? 1 : 0;
+            return added;
+        }
+        if ((size + 1) * 2 > slots.length) {
+            resize(slots.length * 2);
+        }
+        final var mask = slots.length - 1;
+        for (int slot = index(value, mask); ; slot = (slot + 1) & mask) {
+            if (slots[slot] == value) {
+                return false;
+            }
+            if (slots[slot] == EMPTY) {
+                slots[slot] = value;
+                size++;
+                return true;
+            }
+        }
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+        final var mask = slots.length - 1;
+        for (int slot = index(value, mask); ; slot = (slot + 1) & mask) {
+            if (slots[slot] == value) {
+                return true;
+            }
+            if (slots[slot] == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        final var previous = slots;
+        slots = new long[capacity];
+        final var mask = capacity - 1;
+        Arrays.stream(previous).filter(value -> value != EMPTY).forEach(value -> {
+            var slot = index(value, mask);
+            while (slots[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = value;
+        });
+    }
+
+    private static int index(long value, int mask) {
+        final var hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        return Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+    }
+}
@@ -0,0 +1,261 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+import br.challenge.softdesign.domain.adapters.repository.RulingRepository;
+import br.challenge.softdesign.infrastracture.OpenRuling;
+import br.challenge.softdesign.infrastracture.configuration.OpenRulingRegistryProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+@Component
+public class OpenRulingRegistry {
+
+    private static final Logger logger = Logger.getLogger(OpenRulingRegistry.class.getName());
+
+    private static final String CLOSED = "The ruling is closed or does not exist. It is not possible to vote.";
+    private static final String EXPIRED = "The end date of the ruling has already expired. It is not possible to vote.";
+
+    private final RulingRepository rulingRepository;
+    private final VoteTallyAggregator voteTallyAggregator;
+    private final VoterFilterRegistry voterFilterRegistry;
+    private final RulingResultCache rulingResultCache;
+    private final RulingResultSnapshots rulingResultSnapshots;
+    private final OpenRulingRegistryProperties properties;
+    private final Map<UUID, Registration> openRulings = new ConcurrentHashMap<>();
+    // rulings recently looked up and found closed or missing, so repeated votes for them skip the database
+    private final Cache<UUID, Boolean> misses;
+    private final DelayQueue<Registration> expiries = new DelayQueue<>();
+    private final AtomicLong registrations = new AtomicLong();
+    private volatile Thread expiryThread;
+
+    @Autowired
+    public OpenRulingRegistry(RulingRepository rulingRepository,
+                              VoteTallyAggregator voteTallyAggregator,
+                              VoterFilterRegistry voterFilterRegistry,
+                              RulingResultCache rulingResultCache,
+                              RulingResultSnapshots rulingResultSnapshots,
+                              OpenRulingRegistryProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.rulingRepository = rulingRepository;
+        this.voteTallyAggregator = voteTallyAggregator;
+        this.voterFilterRegistry = voterFilterRegistry;
+        this.rulingResultCache = rulingResultCache;
+        this.rulingResultSnapshots = rulingResultSnapshots;
+        this.properties = properties;
+        this.misses = Caffeine.newBuilder()
+                .maximumSize(properties.missCacheSize())
+                .expireAfterWrite(properties.missTtl())
+                .build();
+        meterRegistry.gaugeMapSize("ruling.registry.open", Tags.empty(), openRulings);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        refresh();
+        expiryThread = Thread.ofPlatform().name("ruling-expiry").daemon().start(this::closeExpiredRulings);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (expiryThread != null) {
+            expiryThread.interrupt();
+        }
+    }
+
+    // also picks up rulings opened or closed by other instances, and expiries that could not be persisted
+    @Scheduled(initialDelayString = "${ruling.registry.refresh-interval:PT1M}", fixedDelayString = "${ruling.registry.refresh-interval:PT1M}")
+    public void refresh() {
+        if (!properties.enabled()) {
+            return;
+        }
+        final var refreshedAfter = registrations.get();
+        final var today = LocalDate.now();
+        final var listed = rulingRepository.listOpen();
+        // closed one by one, so each gets its pending votes flushed, its snapshot taken and its cached result dropped
+        final var expired = listed.stream()
+                .filter(ruling -> ruling.endDate().isBefore(today))
+                .filter(ruling -> closeExpired(ruling.uuid()))
+                .count();
+        final var open = listed.stream()
+                .filter(ruling -> !ruling.endDate().isBefore(today))
+                .toList();
+        open.forEach(ruling -> {
+            final var registration = openRulings.get(ruling.uuid());
+            if (registration == null) {
+                registerFound(ruling);
+            } else if (!registration.endDate().equals(ruling.endDate())) {
+                register(ruling.uuid(), ruling.endDate());
+            }
+        });
+
+        // rulings registered while the open rulings were being read are kept, the read may have missed them
+        final var openUuids = open.stream().map(OpenRuling::uuid).collect(Collectors.toSet());
+        openRulings.values().stream()
+                .filter(registration -> registration.sequence() <= refreshedAfter && !openUuids.contains(registration.rulingUuid()))
+                .forEach(this::forget);
+        logger.fine(() -> "Open ruling registry refreshed: " + openRulings.size() + " open, " + expired + " closed by end date");
+    }
+
+    // registered before the commit, an expiry could try to close a ruling that is not visible yet
+    public void registerAfterCommit(UUID rulingUuid, LocalDate endDate) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            register(rulingUuid, endDate);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                register(rulingUuid, endDate);
+            }
+        });
+    }
+
+    private void register(UUID rulingUuid, LocalDate endDate) {
+        if (!properties.enabled()) {
+            return;
+        }
+        final var expiresAt = endDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        final var registration = new Registration(rulingUuid, endDate, registrations.incrementAndGet(), expiresAt);
+        openRulings.put(rulingUuid, registration);
+        expiries.add(registration);
+        misses.invalidate(rulingUuid);
+        // a ruling reopened on another instance may still have its final result cached here
+        rulingResultCache.invalidate(rulingUuid);
+    }
+
+    public void close(UUID rulingUuid) {
+        openRulings.remove(rulingUuid);
+        voteTallyAggregator.flush(rulingUuid);
+        // the update waits for the votes that hold the ruling, so the recount sees every vote it accepted
+        rulingRepository.updateAvailable(rulingUuid, false);
+        rulingResultSnapshots.take(rulingUuid);
+        rulingResultCache.invalidate(rulingUuid);
+        voterFilterRegistry.drop(rulingUuid);
+    }
+
+    public Optional<String> rejectionOf(UUID rulingUuid) {
+        if (!properties.enabled()) {
+            return Optional.empty();
+        }
+        if (rulingUuid == null) {
+            return Optional.of(CLOSED);
+        }
+        final var endDate = Optional.ofNullable(openRulings.get(rulingUuid))
+                .map(Registration::endDate)
+                .or(() -> registerIfOpen(rulingUuid));
+        if (endDate.isEmpty()) {
+            return Optional.of(CLOSED);
+        }
+        if (endDate.get().isBefore(LocalDate.now())) {
+            return Optional.of(EXPIRED);
+        }
+        return Optional.empty();
+    }
+
+    public void checkOpen(UUID rulingUuid) {
+        final var rejection = rejectionOf(rulingUuid);
+        if (rejection.isPresent()) {
+            throw new ValidationRulingException(rejection.get());
+        }
+    }
+
+    public boolean isOpen(UUID rulingUuid) {
+        return properties.enabled()
+                ? rejectionOf(rulingUuid).isEmpty()
+                : rulingRepository.isOpenForVoting(rulingUuid);
+    }
+
+    // a ruling opened on another instance, or before the registry was loaded, is not known yet; a miss is remembered
+    // for ruling.registry.miss-ttl, so a ruling opened elsewhere meanwhile is picked up at most that late
+    private Optional<LocalDate> registerIfOpen(UUID rulingUuid) {
+        if (misses.getIfPresent(rulingUuid) != null) {
+            return Optional.empty();
+        }
+        final var found = rulingRepository.findOpen(rulingUuid);
+        if (found.isEmpty()) {
+            misses.put(rulingUuid, Boolean.TRUE);
+            return Optional.empty();
+        }
+        registerFound(found.get());
+        return Optional.of(found.get().endDate());
+    }
+
+    // opened elsewhere, so its voter filter was never loaded here
+    private void registerFound(OpenRuling ruling) {
+        register(ruling.uuid(), ruling.endDate());
+        voterFilterRegistry.loadIfAbsent(ruling.uuid());
+    }
+
+    private boolean closeExpired(UUID rulingUuid) {
+        try {
+            close(rulingUuid);
+            return true;
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Unable to close expired ruling " + rulingUuid + ", the next refresh retries it", e);
+            return false;
+        }
+    }
+
+    private void forget(Registration registration) {
+        if (openRulings.remove(registration.rulingUuid(), registration)) {
+            rulingResultCache.invalidate(registration.rulingUuid());
+            voterFilterRegistry.drop(registration.rulingUuid());
+        }
+    }
+
+    private void closeExpiredRulings() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                final var registration = expiries.take();
+                // a ruling closed or reopened since it was queued has a newer registration, or none
+                if (openRulings.remove(registration.rulingUuid(), registration)) {
+                    close(registration.rulingUuid());
+                    logger.info(() -> "Ruling " + registration.rulingUuid() + " closed, its end date " + registration.endDate() + " has passed");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Unable to close an expired ruling, the next refresh closes it", e);
+            }
+        }
+    }
+
+    private record Registration(UUID rulingUuid, LocalDate endDate, long sequence, long expiresAt) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiresAt, ((Registration) other).expiresAt);
+        }
+    }
+}
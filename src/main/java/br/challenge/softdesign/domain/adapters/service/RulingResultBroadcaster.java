@@ -0,0 +1,215 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+import br.challenge.softdesign.application.controller.ResultRuling;
+import br.challenge.softdesign.infrastracture.configuration.RulingResultStreamProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Component
+public class RulingResultBroadcaster {
+
+    private static final Logger logger = Logger.getLogger(RulingResultBroadcaster.class.getName());
+
+    private static final String RESULT_EVENT = "result";
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final RulingService rulingService;
+    private final RulingResultStreamProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<UUID, Set<Subscriber>> subscribersByRuling = new ConcurrentHashMap<>();
+    private final Set<UUID> changedRulings = ConcurrentHashMap.newKeySet();
+    // events are written here, never on the scheduler thread shared with the tally flush and the registry refresh
+    private final ExecutorService sender;
+
+    @Autowired
+    public RulingResultBroadcaster(RulingService rulingService, RulingResultStreamProperties properties, ObjectMapper objectMapper) {
+        this.rulingService = rulingService;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.sender = new ThreadPoolExecutor(properties.senderThreads(), properties.senderThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.senderQueueCapacity()),
+                Thread.ofPlatform().name("ruling-result-sender-", 0).daemon().factory());
+    }
+
+    public SseEmitter subscribe(UUID rulingUuid, String lastEventId) {
+        final var result = rulingService.resultOfRuling(rulingUuid);
+        final var subscriber = new Subscriber(rulingUuid, new SseEmitter(properties.timeout().toMillis()));
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(subscriber.emitter::complete);
+        subscriber.emitter.onError(error -> unsubscribe(subscriber));
+        subscribersByRuling.compute(rulingUuid, (uuid, subscribers) -> {
+            final var rulingSubscribers = subscribers == null ? new CopyOnWriteArraySet<Subscriber>() : subscribers;
+            rulingSubscribers.add(subscriber);
+            return rulingSubscribers;
+        });
+
+        // a client reconnecting with the version it already has only waits for the next change
+        if (!result.version().equals(lastEventId)) {
+            subscriber.offer(eventOf(result), false);
+        }
+        return subscriber.emitter;
+    }
+
+    public int subscribersOf(UUID rulingUuid) {
+        final var subscribers = subscribersByRuling.get(rulingUuid);
+        return subscribers == null ? 0 : subscribers.size();
+    }
+
+    // changes are only marked here; the broadcast coalesces them into at most one push per ruling per interval
+    @EventListener
+    public void onResultChanged(RulingResultChanged event) {
+        changedRulings.add(event.rulingUuid());
+    }
+
+    @Scheduled(fixedDelayString = "${ruling.result.stream.min-interval:PT1S}")
+    public void broadcast() {
+        for (final var rulingUuid : changedRulings) {
+            changedRulings.remove(rulingUuid);
+            final var subscribers = subscribersByRuling.get(rulingUuid);
+            if (subscribers == null || subscribers.isEmpty()) {
+                continue;
+            }
+            try {
+                final var event = eventOf(rulingService.resultOfRuling(rulingUuid));
+                subscribers.forEach(subscriber -> subscriber.offer(event, false));
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Unable to broadcast the result of ruling " + rulingUuid, e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ruling.result.stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscribersByRuling.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT, true)));
+    }
+
+    @PreDestroy
+    public void completeAll() {
+        sender.shutdownNow();
+        subscribersByRuling.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribersByRuling.clear();
+    }
+
+    // serialized once per broadcast, whatever the number of subscribers
+    private Set<ResponseBodyEmitter.DataWithMediaType> eventOf(ResultRuling result) {
+        try {
+            return SseEmitter.event()
+                    .id(result.version())
+                    .name(RESULT_EVENT)
+                    .reconnectTime(properties.reconnectDelay().toMillis())
+                    .data(objectMapper.writeValueAsString(result), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribersByRuling.computeIfPresent(subscriber.rulingUuid, (uuid, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    // one event is written at a time per subscriber and one more waits behind it; a subscriber still writing when a
+    // third arrives has fallen behind and is completed, it reconnects with Last-Event-ID and gets the latest result
+    private final class Subscriber {
+
+        private final UUID rulingUuid;
+        private final SseEmitter emitter;
+        private final Lock lock = new ReentrantLock();
+        private boolean writing;
+        private Set<ResponseBodyEmitter.DataWithMediaType> waiting;
+
+        private Subscriber(UUID rulingUuid, SseEmitter emitter) {
+            this.rulingUuid = rulingUuid;
+            this.emitter = emitter;
+        }
+
+        private void offer(Set<ResponseBodyEmitter.DataWithMediaType> event, boolean skippable) {
+            final boolean behind;
+            lock.lock();
+            try {
+                if (!writing) {
+                    writing = true;
+                    behind = false;
+                } else if (skippable) {
+                    return;
+                } else if (waiting == null) {
+                    waiting = event;
+                    return;
+                } else {
+                    behind = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (behind) {
+                fallBehind();
+            } else {
+                dispatch(event);
+            }
+        }
+
+        private void dispatch(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            try {
+                sender.execute(() -> write(event));
+            } catch (RejectedExecutionException e) {
+                fallBehind();
+            }
+        }
+
+        private void write(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(this);
+                emitter.completeWithError(e);
+                return;
+            }
+            final Set<ResponseBodyEmitter.DataWithMediaType> next;
+            lock.lock();
+            try {
+                next = waiting;
+                waiting = null;
+                writing = next != null;
+            } finally {
+                lock.unlock();
+            }
+            if (next != null) {
+                dispatch(next);
+            }
+        }
+
+        private void fallBehind() {
+            logger.fine(() -> "A subscriber of ruling " + rulingUuid + " fell behind and was disconnected");
+            unsubscribe(this);
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+import br.challenge.softdesign.application.controller.ResultRuling;
+import br.challenge.softdesign.infrastracture.configuration.RulingResultCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+@Component
+public class RulingResultCache {
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final Cache<UUID, ResultRuling> resultRulingCache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final RulingResultCacheProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public RulingResultCache(Cache<UUID, ResultRuling> resultRulingCache,
+                             RulingResultCacheProperties properties,
+                             ApplicationEventPublisher eventPublisher) {
+        this.resultRulingCache = resultRulingCache;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // loaded outside the cache: Cache.get would run the query inside a synchronized map bin, pinning a virtual thread
+    public ResultRuling get(UUID rulingUuid, Function<UUID, ResultRuling> loader) {
+        if (!properties.enabled()) {
+            return loader.apply(rulingUuid);
+        }
+        final var cached = resultRulingCache.getIfPresent(rulingUuid);
+        if (cached != null) {
+            return cached;
+        }
+        final var generation = generations.get(stripeOf(rulingUuid));
+        final var result = loader.apply(rulingUuid);
+        resultRulingCache.put(rulingUuid, result);
+        // an invalidation that ran during the load may have been overwritten by a result read before it
+        if (generations.get(stripeOf(rulingUuid)) != generation) {
+            resultRulingCache.invalidate(rulingUuid);
+        }
+        return result;
+    }
+
+    public void invalidate(UUID rulingUuid) {
+        generations.incrementAndGet(stripeOf(rulingUuid));
+        resultRulingCache.invalidate(rulingUuid);
+        eventPublisher.publishEvent(new RulingResultChanged(rulingUuid));
+    }
+
+    // invalidating before the commit would let a concurrent read cache the result without the new vote
+    public void invalidateAfterCommit(UUID rulingUuid) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(rulingUuid);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(rulingUuid);
+            }
+        });
+    }
+
+    private static int stripeOf(UUID rulingUuid) {
+        return Math.floorMod(rulingUuid.hashCode(), GENERATION_STRIPES);
+    }
+}
@@ -0,0 +1,6 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+import java.util.UUID;
+
+public record RulingResultChanged(UUID rulingUuid) {
+}
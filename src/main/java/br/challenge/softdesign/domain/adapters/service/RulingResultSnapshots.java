@@ -0,0 +1,90 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+import br.challenge.softdesign.domain.adapters.repository.RulingRepository;
+import br.challenge.softdesign.domain.adapters.repository.VoteRepository;
+import br.challenge.softdesign.infrastracture.Ruling;
+import br.challenge.softdesign.infrastracture.VoteTally;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.logging.Logger;
+
+@Component
+public class RulingResultSnapshots {
+
+    private static final Logger logger = Logger.getLogger(RulingResultSnapshots.class.getName());
+
+    private final RulingRepository rulingRepository;
+    private final VoteRepository voteRepository;
+    private final VoteTallyAggregator voteTallyAggregator;
+    private final DistributionSummary drift;
+
+    @Autowired
+    public RulingResultSnapshots(RulingRepository rulingRepository,
+                                 VoteRepository voteRepository,
+                                 VoteTallyAggregator voteTallyAggregator,
+                                 MeterRegistry meterRegistry) {
+        this.rulingRepository = rulingRepository;
+        this.voteRepository = voteRepository;
+        this.voteTallyAggregator = voteTallyAggregator;
+        this.drift = DistributionSummary.builder("ruling.result.drift")
+                .description("Votes by which the ruling counters differed from the recount of the votes when the ruling closed")
+                .baseUnit("votes")
+                .register(meterRegistry);
+    }
+
+    // the live counters, only good enough while the ruling is open
+    public VoteTally countersOf(Ruling ruling) {
+        final var rulingUuid = ruling.getUuid();
+        var tally = new VoteTally(ruling.getVotesInFavor(), ruling.getVotesAgainst())
+                .plus(voteTallyAggregator.pendingOf(rulingUuid));
+        if (ruling.getCounterShards() > 1) {
+            tally = tally.plus(rulingRepository.sumCounterShards(rulingUuid));
+        }
+        return tally;
+    }
+
+    // rulings closed by the end date refresh, or before snapshots existed, get theirs on the first read
+    public VoteTally resultOf(Ruling ruling) {
+        return rulingRepository.findResult(ruling.getUuid())
+                .orElseGet(() -> take(ruling));
+    }
+
+    public VoteTally take(UUID rulingUuid) {
+        return rulingRepository.findById(rulingUuid)
+                .map(this::take)
+                .orElseThrow(() -> new NotFoundRulingException("Ruling not found"));
+    }
+
+    // a reopened ruling is counted again when it closes
+    public void discard(UUID rulingUuid) {
+        rulingRepository.deleteResult(rulingUuid);
+    }
+
+    private VoteTally take(Ruling ruling) {
+        final var rulingUuid = ruling.getUuid();
+        final var existing = rulingRepository.findResult(rulingUuid);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        final var recount = voteRepository.countVotes(rulingUuid);
+        final var counters = countersOf(ruling);
+        final var votesInFavorDrift = counters.votesInFavor() - recount.votesInFavor();
+        final var votesAgainstDrift = counters.votesAgainst() - recount.votesAgainst();
+        drift.record(Math.abs(votesInFavorDrift) + Math.abs(votesAgainstDrift));
+        if (votesInFavorDrift != 0 || votesAgainstDrift != 0) {
+            logger.warning(() -> "The counters of ruling " + rulingUuid + " drifted from its votes: counted " + counters
+                    + ", recounted " + recount);
+        }
+
+        // a snapshot written concurrently, or a ruling reopened meanwhile, wins over this recount
+        if (rulingRepository.saveResult(rulingUuid, recount)) {
+            return recount;
+        }
+        return rulingRepository.findResult(rulingUuid).orElse(recount);
+    }
+}
@@ -2,7 +2,9 @@ package br.challenge.softdesign.domain.adapters.service;
 
 import br.challenge.softdesign.application.controller.CreateRuling;
 import br.challenge.softdesign.application.controller.ResultRuling;
+import br.challenge.softdesign.application.controller.RulingPage;
 import br.challenge.softdesign.application.controller.VoteOnRuling;
+import br.challenge.softdesign.application.controller.VoteOutcome;
 
 import java.util.List;
 import java.util.UUID;
@@ -13,6 +15,8 @@ public interface RulingService {
 
     List<CreateRuling> listOfRuling(UUID uuid, Boolean available);
 
+    RulingPage pageOfRulings(boolean available, UUID after, int limit);
+
     ResultRuling resultOfRuling(UUID uuid);
 
     void openRuling(UUID uuid);
@@ -20,4 +24,6 @@ public interface RulingService {
     void closeRuling(UUID uuid);
 
     UUID tallyVoteForRuling(VoteOnRuling voteOnRuling);
+
+    List<VoteOutcome> tallyVotes(List<VoteOnRuling> votesOnRuling);
 }
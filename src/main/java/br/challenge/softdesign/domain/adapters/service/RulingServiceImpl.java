@@ -2,37 +2,78 @@ package br.challenge.softdesign.domain.adapters.service;
 
 import br.challenge.softdesign.application.controller.CreateRuling;
 import br.challenge.softdesign.application.controller.ResultRuling;
+import br.challenge.softdesign.application.controller.RulingPage;
 import br.challenge.softdesign.application.controller.RulingStatus;
 import br.challenge.softdesign.application.controller.VoteOnRuling;
-import br.challenge.softdesign.domain.adapters.repository.VoteRepository;
+import br.challenge.softdesign.application.controller.VoteOutcome;
 import br.challenge.softdesign.infrastracture.Ruling;
 import br.challenge.softdesign.domain.adapters.repository.RulingRepository;
-import br.challenge.softdesign.infrastracture.Vote;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestClientException;
 
 import java.time.LocalDate;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 @Service
 public class RulingServiceImpl implements RulingService {
 
     private final RulingRepository rulingRepository;
-    private final VoteRepository voteRepository;
+    private final VoteWriter voteWriter;
+    private final Validator validator;
+    private final ExecutorService eligibilityExecutor;
+    private final CpfVotingEligibilityValidator cpfVotingEligibilityValidator;
+    private final VoterFilterRegistry voterFilterRegistry;
+    private final RulingResultCache rulingResultCache;
+    private final OpenRulingRegistry openRulingRegistry;
+    private final RulingResultSnapshots rulingResultSnapshots;
+    private final Counter definitelyNewVoters;
+    private final Counter maybeRepeatedVoters;
+    private final Timer eligibilityPhase;
+    private final Timer duplicateCheckPhase;
+    private final Timer writePhase;
 
     @Autowired
-    public RulingServiceImpl(RulingRepository rulingRepository, VoteRepository voteRepository) {
+    public RulingServiceImpl(RulingRepository rulingRepository,
+                             VoteWriter voteWriter,
+                             Validator validator,
+                             ExecutorService eligibilityExecutor,
+                             CpfVotingEligibilityValidator cpfVotingEligibilityValidator,
+                             VoterFilterRegistry voterFilterRegistry,
+                             RulingResultCache rulingResultCache,
+                             OpenRulingRegistry openRulingRegistry,
+                             RulingResultSnapshots rulingResultSnapshots,
+                             MeterRegistry meterRegistry) {
         this.rulingRepository = rulingRepository;
-        this.voteRepository = voteRepository;
+        this.voteWriter = voteWriter;
+        this.validator = validator;
+        this.eligibilityExecutor = eligibilityExecutor;
+        this.cpfVotingEligibilityValidator = cpfVotingEligibilityValidator;
+        this.voterFilterRegistry = voterFilterRegistry;
+        this.rulingResultCache = rulingResultCache;
+        this.openRulingRegistry = openRulingRegistry;
+        this.rulingResultSnapshots = rulingResultSnapshots;
+        this.definitelyNewVoters = voterFilterCounter(meterRegistry, "definitely_new");
+        this.maybeRepeatedVoters = voterFilterCounter(meterRegistry, "maybe_voted");
+        this.eligibilityPhase = votePhaseTimer(meterRegistry, "eligibility");
+        this.duplicateCheckPhase = votePhaseTimer(meterRegistry, "duplicate_check");
+        this.writePhase = votePhaseTimer(meterRegistry, "write");
     }
 
     @Override
+    @Transactional
     public UUID createRuling(final CreateRuling createRuling) {
         if (createRuling != null) {
             var ruling = new Ruling();
-            ruling.setUuid(UUID.randomUUID().toString());
+            ruling.setUuid(TimeOrderedUuid.next());
             ruling.setTitle(createRuling.title());
             ruling.setDescription(createRuling.description());
             ruling.setStartDate(LocalDate.now());
@@ -40,7 +81,17 @@ public class RulingServiceImpl implements RulingService {
             ruling.setVotesAgainst(0);
             ruling.setVotesInFavor(0);
             ruling.setAvailable(RulingStatus.OPEN.equals(createRuling.status()));
-            return rulingRepository.save(ruling);
+            ruling.setCounterShards(createRuling.counterShards() == null ? 1 : createRuling.counterShards());
+
+            final var rulingUuid = rulingRepository.save(ruling);
+            if (ruling.getCounterShards() > 1) {
+                rulingRepository.createCounterShards(rulingUuid, ruling.getCounterShards());
+            }
+            if (ruling.isAvailable()) {
+                voterFilterRegistry.create(rulingUuid);
+                openRulingRegistry.registerAfterCommit(rulingUuid, ruling.getEndDate());
+            }
+            return rulingUuid;
         }
 
         return null;
@@ -51,7 +102,7 @@ public class RulingServiceImpl implements RulingService {
         if (uuid != null) {
             return rulingRepository.findById(uuid)
                     .filter(ruling -> available.equals(ruling.isAvailable()))
-                    .map(ruling -> List.of(new CreateRuling(UUID.fromString(ruling.getUuid()),
+                    .map(ruling -> List.of(new CreateRuling(ruling.getUuid(),
                             ruling.getTitle(),
                             ruling.getDescription(),
                             ruling.getEndDate())))
@@ -61,7 +112,7 @@ public class RulingServiceImpl implements RulingService {
         final var rulings = rulingRepository.listAll(available);
         if (!rulings.isEmpty()) {
             return rulings.stream()
-                    .map(ruling -> new CreateRuling(UUID.fromString(ruling.getUuid()),
+                    .map(ruling -> new CreateRuling(ruling.getUuid(),
                             ruling.getTitle(),
                             ruling.getDescription(),
                             ruling.getEndDate()))
@@ -71,32 +122,56 @@ public class RulingServiceImpl implements RulingService {
         return List.of();
     }
 
+    @Override
+    public RulingPage pageOfRulings(boolean available, UUID after, int limit) {
+        // one extra row tells whether there is a next page without a count query
+        final var summaries = rulingRepository.listPage(available, after, limit + 1);
+        final var rulings = summaries.stream()
+                .limit(limit)
+                .map(summary -> new CreateRuling(summary.uuid(), summary.title(), summary.description(), summary.endDate()))
+                .toList();
+        final var nextCursor = summaries.size() > limit
+                ? Optional.of(rulings.get(rulings.size() - 1).uuid())
+                : Optional.<UUID>empty();
+        return new RulingPage(rulings, nextCursor);
+    }
+
     @Override
     public ResultRuling resultOfRuling(UUID uuid) {
+        return rulingResultCache.get(uuid, this::loadResultOfRuling);
+    }
+
+    private ResultRuling loadResultOfRuling(UUID uuid) {
         return rulingRepository.findById(uuid)
                 .map(ruling -> {
-                    final var totalOfVotes = ruling.getVotesInFavor() + ruling.getVotesAgainst();
+                    // a closed ruling is answered from its snapshot, never from the live counters
+                    final var tally = ruling.isAvailable()
+                            ? rulingResultSnapshots.countersOf(ruling)
+                            : rulingResultSnapshots.resultOf(ruling);
+                    final var votesInFavor = (int) tally.votesInFavor();
+                    final var votesAgainst = (int) tally.votesAgainst();
+                    final var totalOfVotes = votesInFavor + votesAgainst;
 
                     float percentageFor;
                     if (totalOfVotes == 0) {
                         percentageFor = 0f;
                     } else {
-                        percentageFor = (float) ruling.getVotesInFavor() / totalOfVotes * 100;
+                        percentageFor = (float) votesInFavor / totalOfVotes * 100;
                     }
 
                     final String result;
                     if (ruling.isAvailable()) {
-                        result = "Still counting votes";
-                    } else if (ruling.getVotesInFavor() > ruling.getVotesAgainst()) {
+                        result = ResultRuling.STILL_COUNTING_VOTES;
+                    } else if (votesInFavor > votesAgainst) {
                         result = "Approved";
                     } else {
                         result = "Rejected";
                     }
 
-                    return new ResultRuling(UUID.fromString(ruling.getUuid()),
+                    return new ResultRuling(ruling.getUuid(),
                             totalOfVotes,
-                            ruling.getVotesInFavor(),
-                            ruling.getVotesAgainst(),
+                            votesInFavor,
+                            votesAgainst,
                             percentageFor,
                             result);
                 }).orElseThrow(() -> new NotFoundRulingException("Ruling not found"));
@@ -104,65 +179,194 @@ public class RulingServiceImpl implements RulingService {
 
     @Override
     public void openRuling(UUID uuid) {
-        rulingRepository.findById(uuid)
-                .map(ruling -> {
-                    checkRulingClosedByDate(ruling);
-                    ruling.setAvailable(true);
-                    return rulingRepository.save(ruling);
+        rulingRepository.findEndDate(uuid)
+                .map(endDate -> {
+                    checkRulingClosedByDate(endDate);
+                    rulingRepository.updateAvailable(uuid, true);
+                    rulingResultSnapshots.discard(uuid);
+                    rulingResultCache.invalidate(uuid);
+                    voterFilterRegistry.load(uuid);
+                    openRulingRegistry.registerAfterCommit(uuid, endDate);
+                    return uuid;
                 })
                 .orElseThrow(() -> new NotFoundRulingException("Ruling not found"));
     }
 
     @Override
     public void closeRuling(UUID uuid) {
-        rulingRepository.findById(uuid)
-                .map(ruling -> {
-                    ruling.setAvailable(false);
-                    return rulingRepository.save(ruling);
+        rulingRepository.findEndDate(uuid)
+                .map(endDate -> {
+                    openRulingRegistry.close(uuid);
+                    return uuid;
                 })
                 .orElseThrow(() -> new NotFoundRulingException("Ruling not found"));
     }
 
     @Override
-    @Transactional
     public UUID tallyVoteForRuling(VoteOnRuling voteOnRuling) {
-        return CpfVotingEligibilityValidator.validate(voteOnRuling, this::checkDuplicateVote)
-                .flatMap(rulingRepository::findById)
-                .map(ruling -> computeVote(ruling, voteOnRuling))
-                .orElseThrow(() -> new ValidationRulingException("Ruling not found"));
+        openRulingRegistry.checkOpen(voteOnRuling.rulingId());
+        final var eligibility = checkVote(voteOnRuling);
+        return writePhase.record(() -> voteWriter.write(voteOnRuling.rulingId(), voteOnRuling,
+                eligibility == CpfEligibility.PROVISIONALLY_ABLE_TO_VOTE));
+    }
+
+    private CpfEligibility checkVote(VoteOnRuling voteOnRuling) {
+        final var eligibilityCheck = eligibilityExecutor.submit(
+                () -> eligibilityPhase.recordCallable(() -> cpfVotingEligibilityValidator.validate(voteOnRuling)));
+        try {
+            // only the in-memory filter overlaps the validator call, a repeated vote is rejected by the insert
+            duplicateCheckPhase.record(() -> checkVoterFilter(voteOnRuling));
+            return eligibilityCheck.get();
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(exception.getCause());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking the vote", exception);
+        } finally {
+            // an eligibility call that is already running is left to finish, its answer still warms the cache
+            eligibilityCheck.cancel(false);
+        }
+    }
+
+    private void checkVoterFilter(VoteOnRuling voteOnRuling) {
+        if (voterFilterRegistry.mightHaveVoted(voteOnRuling.rulingId(), Cpf.parse(voteOnRuling.cpf()))) {
+            maybeRepeatedVoters.increment();
+        } else {
+            definitelyNewVoters.increment();
+        }
+    }
+
+    private static Counter voterFilterCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ruling.vote.bloom_filter")
+                .description("Duplicate-vote checks answered by the per-ruling voter filter")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
-    private UUID computeVote(Ruling ruling, VoteOnRuling voteOnRuling) {
-        this.checkRulingClosedByDate(ruling);
+    private static Timer votePhaseTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("ruling.vote.phase")
+                .description("Time spent in each phase of a single vote")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
 
-        if (ruling.isAvailable()) {
+    @Override
+    public List<VoteOutcome> tallyVotes(List<VoteOnRuling> votesOnRuling) {
+        final var outcomes = new VoteOutcome[votesOnRuling.size()];
+        final var submittedVotes = new HashMap<UUID, LongHashSet>();
+        final var eligibleVotes = new LinkedHashMap<Integer, VoteOnRuling>();
+        // each ruling sizes its set of CPFs for its own votes, not for the whole batch
+        final var votesPerRuling = new HashMap<UUID, Integer>();
+        votesOnRuling.stream()
+                .filter(voteOnRuling -> voteOnRuling != null && voteOnRuling.rulingId() != null)
+                .forEach(voteOnRuling -> votesPerRuling.merge(voteOnRuling.rulingId(), 1, Integer::sum));
+
+        for (int position = 0; position < votesOnRuling.size(); position++) {
+            final var voteOnRuling = votesOnRuling.get(position);
+            if (voteOnRuling == null) {
+                outcomes[position] = VoteOutcome.rejected("The vote can not be empty.");
+                continue;
+            }
+            final var violation = validator.validate(voteOnRuling).stream().findFirst();
+            if (violation.isPresent()) {
+                outcomes[position] = VoteOutcome.rejected(violation.get().getMessage());
+                continue;
+            }
+            if (voteOnRuling.rulingId() == null) {
+                outcomes[position] = VoteOutcome.rejected("Ruling not found");
+                continue;
+            }
+            final var closed = openRulingRegistry.rejectionOf(voteOnRuling.rulingId());
+            if (closed.isPresent()) {
+                outcomes[position] = VoteOutcome.rejected(closed.get());
+                continue;
+            }
+            final long cpf;
+            try {
+                cpf = Cpf.parse(voteOnRuling.cpf());
+            } catch (ValidationRulingException exception) {
+                outcomes[position] = VoteOutcome.rejected(exception.getMessage());
+                continue;
+            }
+            final var cpfsOfRuling = submittedVotes.computeIfAbsent(voteOnRuling.rulingId(), rulingUuid -> new LongHashSet(votesPerRuling.get(rulingUuid)));
+            if (!cpfsOfRuling.add(cpf)) {
+                outcomes[position] = VoteOutcome.rejected("The vote has already been registered.");
+                continue;
+            }
+            eligibleVotes.put(position, voteOnRuling);
+        }
 
-            if (voteOnRuling.voteInFavor()) {
-                ruling.setVotesInFavor(ruling.getVotesInFavor() + 1);
+        final var eligibilityByCpf = checkEligibility(eligibleVotes.values());
+        final var provisionalCpfs = new LongHashSet(eligibleVotes.size());
+        final var positionsByRuling = new LinkedHashMap<UUID, List<Integer>>();
+        eligibleVotes.forEach((position, voteOnRuling) -> {
+            final var eligibility = eligibilityByCpf.get(Cpf.parse(voteOnRuling.cpf()));
+            if (eligibility.rejection().isPresent()) {
+                outcomes[position] = VoteOutcome.rejected(eligibility.rejection().get());
             } else {
-                ruling.setVotesAgainst(ruling.getVotesAgainst() + 1);
+                if (eligibility.provisional()) {
+                    provisionalCpfs.add(Cpf.parse(voteOnRuling.cpf()));
+                }
+                positionsByRuling.computeIfAbsent(voteOnRuling.rulingId(), rulingUuid -> new ArrayList<>()).add(position);
+            }
+        });
+
+        positionsByRuling.forEach((rulingUuid, positions) -> {
+            try {
+                final var saved = voteWriter.writeBatch(rulingUuid, positions.stream().map(votesOnRuling::get).toList(), provisionalCpfs);
+                for (int i = 0; i < positions.size(); i++) {
+                    outcomes[positions.get(i)] = saved.get(i)
+                            .map(VoteOutcome::accepted)
+                            .orElseGet(() -> VoteOutcome.rejected("The vote has already been registered."));
+                }
+            } catch (ValidationRulingException exception) {
+                positions.forEach(position -> outcomes[position] = VoteOutcome.rejected(exception.getMessage()));
             }
+        });
+
+        return Arrays.asList(outcomes);
+    }
 
-            final var vote = new Vote();
-            vote.setUuid(UUID.randomUUID().toString());
-            vote.setCpf(voteOnRuling.cpf());
-            vote.setVoteInFavor(voteOnRuling.voteInFavor());
-            vote.setRuling(ruling);
+    private Map<Long, EligibilityCheck> checkEligibility(Collection<VoteOnRuling> votesOnRuling) {
+        final var checks = new HashMap<Long, Future<EligibilityCheck>>();
+        votesOnRuling.forEach(voteOnRuling -> checks.computeIfAbsent(Cpf.parse(voteOnRuling.cpf()),
+                cpf -> eligibilityExecutor.submit(() -> checkEligibility(voteOnRuling))));
 
-            return voteRepository.save(vote);
+        final var eligibilityByCpf = new HashMap<Long, EligibilityCheck>();
+        checks.forEach((cpf, check) -> {
+            try {
+                eligibilityByCpf.put(cpf, check.get());
+            } catch (ExecutionException exception) {
+                eligibilityByCpf.put(cpf, EligibilityCheck.rejected(exception.getCause().getMessage()));
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while checking the CPF eligibility", exception);
+            }
+        });
+        return eligibilityByCpf;
+    }
+
+    private EligibilityCheck checkEligibility(VoteOnRuling voteOnRuling) {
+        try {
+            final var eligibility = cpfVotingEligibilityValidator.validate(voteOnRuling);
+            return new EligibilityCheck(eligibility == CpfEligibility.PROVISIONALLY_ABLE_TO_VOTE, Optional.empty());
+        } catch (ValidationRulingException | UnavailableRulingException | RestClientException exception) {
+            return EligibilityCheck.rejected(exception.getMessage());
         }
-        throw new ValidationRulingException("The ruling is closed. It is not possible to vote.");
     }
 
-    private void checkRulingClosedByDate(Ruling ruling) {
-        if (ruling.getEndDate().isBefore(LocalDate.now())) {
-            throw new ValidationRulingException("The end date of the ruling has already expired. It is not possible to vote.");
+    private record EligibilityCheck(boolean provisional, Optional<String> rejection) {
+        static EligibilityCheck rejected(String reason) {
+            return new EligibilityCheck(false, Optional.of(reason));
         }
     }
 
-    private void checkDuplicateVote(VoteOnRuling voteOnRuling) {
-        if (voteRepository.existsVoteByCpfAndRulingUuid(voteOnRuling.cpf(), voteOnRuling.rulingId().toString())) {
-            throw new ValidationRulingException("The vote has already been registered.");
+    private void checkRulingClosedByDate(LocalDate endDate) {
+        if (endDate.isBefore(LocalDate.now())) {
+            throw new ValidationRulingException("The end date of the ruling has already expired. It is not possible to vote.");
         }
     }
 }
@@ -0,0 +1,24 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates version 7 UUIDs: the first 48 bits are the Unix time in milliseconds, so new keys are appended
+ * to the end of the primary-key index instead of landing on random pages.
+ */
+public final class TimeOrderedUuid {
+
+    private static final long VERSION_7 = 0x7000L;
+    private static final long IETF_VARIANT = 0x8000000000000000L;
+
+    private TimeOrderedUuid() {
+    }
+
+    public static UUID next() {
+        final var random = ThreadLocalRandom.current();
+        final var mostSignificantBits = (System.currentTimeMillis() << 16) | VERSION_7 | random.nextInt(1 << 12);
+        final var leastSignificantBits = IETF_VARIANT | (random.nextLong() >>> 2);
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
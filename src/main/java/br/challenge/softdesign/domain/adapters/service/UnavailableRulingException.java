@@ -0,0 +1,14 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class UnavailableRulingException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UnavailableRulingException(String m) {
+        super(m);
+    }
+}
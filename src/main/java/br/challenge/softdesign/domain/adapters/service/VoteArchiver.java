@@ -0,0 +1,56 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+import br.challenge.softdesign.domain.adapters.repository.VoteRepository;
+import br.challenge.softdesign.infrastracture.configuration.VoteArchiveProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Component
+public class VoteArchiver {
+
+    private static final Logger logger = Logger.getLogger(VoteArchiver.class.getName());
+
+    private final VoteRepository voteRepository;
+    private final VoteArchiveProperties properties;
+    private final Counter archivedVotes;
+
+    @Autowired
+    public VoteArchiver(VoteRepository voteRepository, VoteArchiveProperties properties, MeterRegistry meterRegistry) {
+        this.voteRepository = voteRepository;
+        this.properties = properties;
+        this.archivedVotes = Counter.builder("ruling.vote.archived")
+                .description("Votes moved from the vote table to the archive")
+                .register(meterRegistry);
+    }
+
+    // a closed ruling can be reopened until its end date, so the retention counts from the end date
+    @Scheduled(initialDelayString = "${ruling.vote.archive.interval:PT1H}", fixedDelayString = "${ruling.vote.archive.interval:PT1H}")
+    public void archiveEndedRulings() {
+        if (!properties.enabled()) {
+            return;
+        }
+        final var endedBefore = LocalDate.now().minusDays(properties.retention().toDays());
+        for (final var rulingUuid : voteRepository.findRulingsToArchive(endedBefore, properties.batchSize())) {
+            try {
+                archive(rulingUuid);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Unable to archive the votes of ruling " + rulingUuid, e);
+            }
+        }
+    }
+
+    public int archive(UUID rulingUuid) {
+        final var votes = voteRepository.archive(rulingUuid);
+        archivedVotes.increment(votes);
+        logger.info(() -> "Archived " + votes + " votes of ruling " + rulingUuid);
+        return votes;
+    }
+}
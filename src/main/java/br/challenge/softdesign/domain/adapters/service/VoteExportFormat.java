@@ -0,0 +1,16 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+public enum VoteExportFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    VoteExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+}
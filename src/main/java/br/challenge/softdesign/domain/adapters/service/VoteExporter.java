@@ -0,0 +1,67 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+import br.challenge.softdesign.domain.adapters.repository.RulingRepository;
+import br.challenge.softdesign.domain.adapters.repository.VoteRepository;
+import br.challenge.softdesign.infrastracture.ExportedVote;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+@Component
+public class VoteExporter {
+
+    private static final Logger logger = Logger.getLogger(VoteExporter.class.getName());
+
+    private final RulingRepository rulingRepository;
+    private final VoteRepository voteRepository;
+
+    @Autowired
+    public VoteExporter(RulingRepository rulingRepository, VoteRepository voteRepository) {
+        this.rulingRepository = rulingRepository;
+        this.voteRepository = voteRepository;
+    }
+
+    public void checkExportable(UUID rulingUuid) {
+        final var ruling = rulingRepository.findById(rulingUuid)
+                .orElseThrow(() -> new NotFoundRulingException("Ruling not found"));
+        if (ruling.isAvailable()) {
+            throw new ValidationRulingException("The ruling is still open. Votes can only be exported after it is closed.");
+        }
+    }
+
+    // rows are written as they come from the cursor; a client that disconnects fails the next write and closes the cursor
+    public void export(UUID rulingUuid, VoteExportFormat format, OutputStream outputStream) throws IOException {
+        final var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == VoteExportFormat.CSV) {
+            writer.write("vote_id,cpf,vote_in_favor,provisional\n");
+        }
+        try {
+            voteRepository.forEachVote(rulingUuid, vote -> write(writer, format, vote));
+        } catch (UncheckedIOException exception) {
+            logger.fine(() -> "Vote export of ruling " + rulingUuid + " aborted: " + exception.getCause().getMessage());
+            throw exception.getCause();
+        }
+        writer.flush();
+    }
+
+    private static void write(BufferedWriter writer, VoteExportFormat format, ExportedVote vote) {
+        try {
+            if (format == VoteExportFormat.CSV) {
+                writer.write(vote.uuid() + "," + Cpf.format(vote.cpf()) + "," + vote.voteInFavor() + "," + vote.provisional() + "\n");
+            } else {
+                writer.write("{\"vote_id\":\"" + vote.uuid() + "\",\"cpf\":\"" + Cpf.format(vote.cpf())
+                        + "\",\"vote_in_favor\":" + vote.voteInFavor() + ",\"provisional\":" + vote.provisional() + "}\n");
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+import br.challenge.softdesign.application.controller.VoteOnRuling;
+import br.challenge.softdesign.application.controller.VoteOutcome;
+import br.challenge.softdesign.infrastracture.configuration.AsyncVoteProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Component
+@ConditionalOnProperty(prefix = "ruling.vote.async", name = "enabled", havingValue = "true")
+public class VoteIngestionPipeline implements SmartLifecycle {
+
+    private static final Logger logger = Logger.getLogger(VoteIngestionPipeline.class.getName());
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+    private static final String NOT_REGISTERED = "The vote could not be registered.";
+
+    private final RulingService rulingService;
+    private final AsyncVoteProperties properties;
+    private final BlockingQueue<PendingVote> queue;
+    private final Cache<UUID, VoteOutcome> receipts;
+    private final Lock lifecycle = new ReentrantLock();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public VoteIngestionPipeline(RulingService rulingService, AsyncVoteProperties properties) {
+        this.rulingService = rulingService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        // bounded like the queue: at peak rates the retention alone would keep millions of outcomes
+        this.receipts = Caffeine.newBuilder()
+                .maximumSize(properties.receiptCapacity())
+                .expireAfterWrite(properties.receiptRetention())
+                .build();
+    }
+
+    public UUID submit(VoteOnRuling voteOnRuling) {
+        final var receipt = UUID.randomUUID();
+        receipts.put(receipt, VoteOutcome.pending());
+
+        // under the lock, a vote is either queued before stop() or refused, never left behind a writer that exited
+        final boolean queued;
+        lifecycle.lock();
+        try {
+            queued = running && queue.offer(new PendingVote(receipt, voteOnRuling));
+        } finally {
+            lifecycle.unlock();
+        }
+        if (!queued) {
+            receipts.invalidate(receipt);
+            throw new UnavailableRulingException("The vote queue is full. Please try again later.");
+        }
+        return receipt;
+    }
+
+    public Optional<VoteOutcome> outcomeOf(UUID receipt) {
+        return Optional.ofNullable(receipts.getIfPresent(receipt));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("vote-ingestion-writer")
+                .start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        lifecycle.lock();
+        try {
+            running = false;
+        } finally {
+            lifecycle.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // left behind when the writer or the shutdown was interrupted
+            final var remaining = new ArrayList<PendingVote>();
+            queue.drainTo(remaining);
+            reject(remaining);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain() {
+        final var batch = new ArrayList<PendingVote>(properties.batchSize());
+
+        // keeps draining after stop() so that every accepted receipt gets an outcome
+        while (running || !queue.isEmpty()) {
+            try {
+                final var first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, properties.batchSize() - 1);
+                    write(batch);
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException exception) {
+                logger.log(Level.SEVERE, "Could not write a batch of votes", exception);
+                reject(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // the votes of a ruling that cannot be written do not take the votes of the other rulings with them
+    private void write(List<PendingVote> batch) {
+        final var votesByRuling = new LinkedHashMap<UUID, List<PendingVote>>();
+        batch.forEach(vote -> votesByRuling.computeIfAbsent(vote.voteOnRuling().rulingId(), rulingUuid -> new ArrayList<>()).add(vote));
+        votesByRuling.forEach((rulingUuid, votes) -> {
+            try {
+                complete(votes, rulingService.tallyVotes(votes.stream().map(PendingVote::voteOnRuling).toList()));
+            } catch (RuntimeException exception) {
+                logger.log(Level.SEVERE, "Could not write the votes of ruling " + rulingUuid, exception);
+                reject(votes);
+            }
+        });
+    }
+
+    private void reject(List<PendingVote> votes) {
+        complete(votes, votes.stream().map(vote -> VoteOutcome.rejected(NOT_REGISTERED)).toList());
+    }
+
+    private void complete(List<PendingVote> batch, List<VoteOutcome> outcomes) {
+        for (int i = 0; i < batch.size(); i++) {
+            receipts.put(batch.get(i).receipt(), outcomes.get(i));
+        }
+    }
+
+    private record PendingVote(UUID receipt, VoteOnRuling voteOnRuling) {
+    }
+}
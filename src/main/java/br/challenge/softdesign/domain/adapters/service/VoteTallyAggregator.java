@@ -0,0 +1,110 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+import br.challenge.softdesign.domain.adapters.repository.RulingRepository;
+import br.challenge.softdesign.infrastracture.VoteTally;
+import br.challenge.softdesign.infrastracture.configuration.WriteBehindTallyProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Component
+public class VoteTallyAggregator {
+
+    private static final Logger logger = Logger.getLogger(VoteTallyAggregator.class.getName());
+
+    private final RulingRepository rulingRepository;
+    private final WriteBehindTallyProperties properties;
+    private final Map<UUID, PendingTally> pendingByRuling = new ConcurrentHashMap<>();
+
+    @Autowired
+    public VoteTallyAggregator(RulingRepository rulingRepository, WriteBehindTallyProperties properties) {
+        this.rulingRepository = rulingRepository;
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    public void recordAfterCommit(UUID rulingUuid, int votesInFavor, int votesAgainst) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(rulingUuid, votesInFavor, votesAgainst);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(rulingUuid, votesInFavor, votesAgainst);
+            }
+        });
+    }
+
+    public VoteTally pendingOf(UUID rulingUuid) {
+        final var pending = pendingByRuling.get(rulingUuid);
+        return pending == null ? VoteTally.EMPTY : pending.total();
+    }
+
+    @Scheduled(fixedDelayString = "${ruling.tally.write-behind.flush-interval:PT1S}")
+    public void flushAll() {
+        pendingByRuling.keySet().forEach(this::flush);
+    }
+
+    public void flush(UUID rulingUuid) {
+        final var pending = pendingByRuling.get(rulingUuid);
+        if (pending == null) {
+            return;
+        }
+
+        final var votesInFavor = pending.votesInFavor.sumThenReset();
+        final var votesAgainst = pending.votesAgainst.sumThenReset();
+        if (votesInFavor == 0 && votesAgainst == 0) {
+            return;
+        }
+
+        // while the delta is being written it still has to show up in the results
+        pending.flushingInFavor.add(votesInFavor);
+        pending.flushingAgainst.add(votesAgainst);
+        try {
+            rulingRepository.applyVotes(rulingUuid, (int) votesInFavor, (int) votesAgainst);
+        } catch (RuntimeException exception) {
+            logger.log(Level.WARNING, "Could not flush the pending votes of ruling " + rulingUuid + ", retrying on the next flush", exception);
+            pending.votesInFavor.add(votesInFavor);
+            pending.votesAgainst.add(votesAgainst);
+        } finally {
+            pending.flushingInFavor.add(-votesInFavor);
+            pending.flushingAgainst.add(-votesAgainst);
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flushAll();
+    }
+
+    private void record(UUID rulingUuid, int votesInFavor, int votesAgainst) {
+        final var pending = pendingByRuling.computeIfAbsent(rulingUuid, uuid -> new PendingTally());
+        pending.votesInFavor.add(votesInFavor);
+        pending.votesAgainst.add(votesAgainst);
+    }
+
+    private static final class PendingTally {
+        private final LongAdder votesInFavor = new LongAdder();
+        private final LongAdder votesAgainst = new LongAdder();
+        private final LongAdder flushingInFavor = new LongAdder();
+        private final LongAdder flushingAgainst = new LongAdder();
+
+        private VoteTally total() {
+            return new VoteTally(votesInFavor.sum() + flushingInFavor.sum(), votesAgainst.sum() + flushingAgainst.sum());
+        }
+    }
+}
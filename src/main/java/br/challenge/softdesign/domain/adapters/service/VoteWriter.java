@@ -0,0 +1,121 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+import br.challenge.softdesign.application.controller.VoteOnRuling;
+import br.challenge.softdesign.domain.adapters.repository.RulingRepository;
+import br.challenge.softdesign.domain.adapters.repository.VoteRepository;
+import br.challenge.softdesign.infrastracture.Ruling;
+import br.challenge.softdesign.infrastracture.Vote;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+public class VoteWriter {
+
+    private final RulingRepository rulingRepository;
+    private final VoteRepository voteRepository;
+    private final VoteTallyAggregator voteTallyAggregator;
+    private final VoterFilterRegistry voterFilterRegistry;
+    private final RulingResultCache rulingResultCache;
+    private final OpenRulingRegistry openRulingRegistry;
+
+    @Autowired
+    public VoteWriter(RulingRepository rulingRepository,
+                      VoteRepository voteRepository,
+                      VoteTallyAggregator voteTallyAggregator,
+                      VoterFilterRegistry voterFilterRegistry,
+                      RulingResultCache rulingResultCache,
+                      OpenRulingRegistry openRulingRegistry) {
+        this.rulingRepository = rulingRepository;
+        this.voteRepository = voteRepository;
+        this.voteTallyAggregator = voteTallyAggregator;
+        this.voterFilterRegistry = voterFilterRegistry;
+        this.rulingResultCache = rulingResultCache;
+        this.openRulingRegistry = openRulingRegistry;
+    }
+
+    @Transactional
+    public UUID write(UUID rulingUuid, VoteOnRuling voteOnRuling, boolean provisional) {
+        final var votesInFavor = voteOnRuling.voteInFavor() ? 1 : 0;
+        final var votesAgainst = voteOnRuling.voteInFavor() ? 0 : 1;
+
+        final var accepted = voteTallyAggregator.isEnabled()
+                ? openRulingRegistry.isOpen(rulingUuid) && rulingRepository.lockOpenForVoting(rulingUuid)
+                : rulingRepository.countVotes(rulingUuid, votesInFavor, votesAgainst);
+        if (!accepted) {
+            throw rejectVote(rulingRepository.findById(rulingUuid));
+        }
+
+        final var voteUuid = voteRepository.save(toVote(rulingUuid, voteOnRuling, provisional))
+                .orElseThrow(() -> new ValidationRulingException("The vote has already been registered."));
+        voterFilterRegistry.record(rulingUuid, Cpf.parse(voteOnRuling.cpf()));
+
+        if (voteTallyAggregator.isEnabled()) {
+            voteTallyAggregator.recordAfterCommit(rulingUuid, votesInFavor, votesAgainst);
+        }
+        rulingResultCache.invalidateAfterCommit(rulingUuid);
+        return voteUuid;
+    }
+
+    @Transactional
+    public List<Optional<UUID>> writeBatch(UUID rulingUuid, List<VoteOnRuling> votesOnRuling, LongHashSet provisionalCpfs) {
+        // without write-behind the counter update at the end holds the ruling against a close
+        if (!openRulingRegistry.isOpen(rulingUuid)
+                || voteTallyAggregator.isEnabled() && !rulingRepository.lockOpenForVoting(rulingUuid)) {
+            throw rejectVote(rulingRepository.findById(rulingUuid));
+        }
+
+        final var votes = votesOnRuling.stream()
+                .map(voteOnRuling -> toVote(rulingUuid, voteOnRuling, provisionalCpfs.contains(Cpf.parse(voteOnRuling.cpf()))))
+                .toList();
+        final var saved = voteRepository.saveAll(votes);
+
+        int votesInFavor = 0;
+        int votesAgainst = 0;
+        for (int i = 0; i < votes.size(); i++) {
+            if (saved.get(i).isPresent()) {
+                voterFilterRegistry.record(rulingUuid, votes.get(i).getCpf());
+                if (votes.get(i).isVoteInFavor()) {
+                    votesInFavor++;
+                } else {
+                    votesAgainst++;
+                }
+            }
+        }
+
+        if (votesInFavor + votesAgainst > 0) {
+            if (voteTallyAggregator.isEnabled()) {
+                voteTallyAggregator.recordAfterCommit(rulingUuid, votesInFavor, votesAgainst);
+            } else if (!rulingRepository.countVotes(rulingUuid, votesInFavor, votesAgainst)) {
+                throw rejectVote(rulingRepository.findById(rulingUuid));
+            }
+            rulingResultCache.invalidateAfterCommit(rulingUuid);
+        }
+        return saved;
+    }
+
+    private Vote toVote(UUID rulingUuid, VoteOnRuling voteOnRuling, boolean provisional) {
+        final var vote = new Vote();
+        vote.setUuid(TimeOrderedUuid.next());
+        vote.setCpf(Cpf.parse(voteOnRuling.cpf()));
+        vote.setVoteInFavor(voteOnRuling.voteInFavor());
+        vote.setRulingId(rulingUuid);
+        vote.setProvisional(provisional);
+        return vote;
+    }
+
+    private ValidationRulingException rejectVote(Optional<Ruling> ruling) {
+        if (ruling.isEmpty()) {
+            return new ValidationRulingException("Ruling not found");
+        }
+        if (ruling.get().getEndDate().isBefore(LocalDate.now())) {
+            return new ValidationRulingException("The end date of the ruling has already expired. It is not possible to vote.");
+        }
+        return new ValidationRulingException("The ruling is closed. It is not possible to vote.");
+    }
+}
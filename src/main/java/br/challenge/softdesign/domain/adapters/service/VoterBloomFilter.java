@@ -0,0 +1,55 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter of the CPFs that voted on one ruling. {@link #mightContain} never answers
+ * {@code false} for a CPF that was {@link #put}, and answers {@code true} for an absent CPF with roughly
+ * the configured false-positive rate while the filter holds no more than the expected number of voters.
+ */
+public class VoterBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    public VoterBloomFilter(long expectedVoters, double falsePositiveRate) {
+        final var voters = Math.max(1, expectedVoters);
+        final var optimalBits = (long) Math.ceil(-voters * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray(Math.toIntExact(Math.max(1, (optimalBits + 63) / 64)));
+        this.bitCount = words.length() * 64L;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / voters * Math.log(2)));
+    }
+
+    public void put(long cpf) {
+        final var hash1 = mix(cpf);
+        final var hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            final var bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            final var mask = 1L << bit;
+            words.getAndAccumulate((int) (bit >>> 6), mask, (word, bitMask) -> word | bitMask);
+        }
+    }
+
+    public boolean mightContain(long cpf) {
+        final var hash1 = mix(cpf);
+        final var hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            final var bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long sizeInBytes() {
+        return words.length() * 8L;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
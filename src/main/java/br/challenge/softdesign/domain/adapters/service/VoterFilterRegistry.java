@@ -0,0 +1,83 @@
+package br.challenge.softdesign.domain.adapters.service;
+
+import br.challenge.softdesign.domain.adapters.repository.RulingRepository;
+import br.challenge.softdesign.domain.adapters.repository.VoteRepository;
+import br.challenge.softdesign.infrastracture.configuration.VoterBloomFilterProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+@Component
+public class VoterFilterRegistry {
+
+    private static final Logger logger = Logger.getLogger(VoterFilterRegistry.class.getName());
+
+    private final RulingRepository rulingRepository;
+    private final VoteRepository voteRepository;
+    private final VoterBloomFilterProperties properties;
+    private final Map<UUID, VoterBloomFilter> filtersByRuling = new ConcurrentHashMap<>();
+
+    @Autowired
+    public VoterFilterRegistry(RulingRepository rulingRepository, VoteRepository voteRepository, VoterBloomFilterProperties properties) {
+        this.rulingRepository = rulingRepository;
+        this.voteRepository = voteRepository;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenRulings() {
+        if (properties.enabled()) {
+            rulingRepository.listAll(true).forEach(ruling -> load(ruling.getUuid()));
+        }
+    }
+
+    public void create(UUID rulingUuid) {
+        if (properties.enabled()) {
+            filtersByRuling.put(rulingUuid, newFilter());
+        }
+    }
+
+    // a vote accepted while the filter is loading may be missed; the unique index still rejects its duplicates
+    public void load(UUID rulingUuid) {
+        if (!properties.enabled()) {
+            return;
+        }
+        final var filter = newFilter();
+        voteRepository.forEachCpf(rulingUuid, filter::put);
+        filtersByRuling.put(rulingUuid, filter);
+        logger.fine(() -> "Loaded voter filter of ruling " + rulingUuid + " (" + filter.sizeInBytes() + " bytes)");
+    }
+
+    // for rulings opened on another instance, which only this instance's registry finds out about
+    public void loadIfAbsent(UUID rulingUuid) {
+        if (!filtersByRuling.containsKey(rulingUuid)) {
+            load(rulingUuid);
+        }
+    }
+
+    public void drop(UUID rulingUuid) {
+        filtersByRuling.remove(rulingUuid);
+    }
+
+    public boolean mightHaveVoted(UUID rulingUuid, long cpf) {
+        final var filter = filtersByRuling.get(rulingUuid);
+        return filter == null || filter.mightContain(cpf);
+    }
+
+    public void record(UUID rulingUuid, long cpf) {
+        final var filter = filtersByRuling.get(rulingUuid);
+        if (filter != null) {
+            filter.put(cpf);
+        }
+    }
+
+    private VoterBloomFilter newFilter() {
+        return new VoterBloomFilter(properties.expectedVoters(), properties.falsePositiveRate());
+    }
+}
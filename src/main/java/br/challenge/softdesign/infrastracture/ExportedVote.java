@@ -0,0 +1,6 @@
+package br.challenge.softdesign.infrastracture;
+
+import java.util.UUID;
+
+public record ExportedVote(UUID uuid, long cpf, boolean voteInFavor, boolean provisional) {
+}
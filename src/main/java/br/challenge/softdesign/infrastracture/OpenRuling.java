@@ -0,0 +1,7 @@
+package br.challenge.softdesign.infrastracture;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record OpenRuling(UUID uuid, LocalDate endDate) {
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
 import java.time.LocalDate;
+import java.util.UUID;
 
 @Entity
 @Table(name = "ruling")
@@ -13,7 +14,7 @@ public class Ruling {
 
     @Id
     @Column(name = "uuid")
-    public String uuid;
+    public UUID uuid;
 
     @Column(name = "title")
     public String title;
@@ -36,11 +37,14 @@ public class Ruling {
     @Column(name = "available")
     public boolean available;
 
-    public String getUuid() {
+    @Column(name = "counter_shards")
+    public int counterShards = 1;
+
+    public UUID getUuid() {
         return uuid;
     }
 
-    public void setUuid(String uuid) {
+    public void setUuid(UUID uuid) {
         this.uuid = uuid;
     }
 
@@ -99,4 +103,12 @@ public class Ruling {
     public void setAvailable(boolean available) {
         this.available = available;
     }
+
+    public int getCounterShards() {
+        return counterShards;
+    }
+
+    public void setCounterShards(int counterShards) {
+        this.counterShards = counterShards;
+    }
 }
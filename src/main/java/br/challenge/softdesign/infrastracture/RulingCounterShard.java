@@ -0,0 +1,87 @@
+package br.challenge.softdesign.infrastracture;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+@Entity
+@Table(name = "ruling_counter_shard")
+@IdClass(RulingCounterShard.Key.class)
+public class RulingCounterShard {
+
+    @Id
+    @Column(name = "ruling_id")
+    public UUID rulingId;
+
+    @Id
+    @Column(name = "slot")
+    public int slot;
+
+    @Column(name = "votes_in_favor")
+    public int votesInFavor;
+
+    @Column(name = "votes_against")
+    public int votesAgainst;
+
+    public UUID getRulingId() {
+        return rulingId;
+    }
+
+    public void setRulingId(UUID rulingId) {
+        this.rulingId = rulingId;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    public int getVotesInFavor() {
+        return votesInFavor;
+    }
+
+    public void setVotesInFavor(int votesInFavor) {
+        this.votesInFavor = votesInFavor;
+    }
+
+    public int getVotesAgainst() {
+        return votesAgainst;
+    }
+
+    public void setVotesAgainst(int votesAgainst) {
+        this.votesAgainst = votesAgainst;
+    }
+
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private UUID rulingId;
+        private int slot;
+
+        public Key() {
+        }
+
+        public Key(UUID rulingId, int slot) {
+            this.rulingId = rulingId;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return slot == key.slot && Objects.equals(rulingId, key.rulingId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(rulingId, slot);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package br.challenge.softdesign.infrastracture;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "ruling_result")
+public class RulingResult {
+
+    @Id
+    @Column(name = "ruling_id")
+    public UUID rulingId;
+
+    @Column(name = "votes_in_favor")
+    public long votesInFavor;
+
+    @Column(name = "votes_against")
+    public long votesAgainst;
+
+    @Column(name = "closed_at")
+    public LocalDateTime closedAt;
+
+    public UUID getRulingId() {
+        return rulingId;
+    }
+
+    public void setRulingId(UUID rulingId) {
+        this.rulingId = rulingId;
+    }
+
+    public long getVotesInFavor() {
+        return votesInFavor;
+    }
+
+    public void setVotesInFavor(long votesInFavor) {
+        this.votesInFavor = votesInFavor;
+    }
+
+    public long getVotesAgainst() {
+        return votesAgainst;
+    }
+
+    public void setVotesAgainst(long votesAgainst) {
+        this.votesAgainst = votesAgainst;
+    }
+
+    public LocalDateTime getClosedAt() {
+        return closedAt;
+    }
+
+    public void setClosedAt(LocalDateTime closedAt) {
+        this.closedAt = closedAt;
+    }
+}
@@ -0,0 +1,7 @@
+package br.challenge.softdesign.infrastracture;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record RulingSummary(UUID uuid, String title, String description, LocalDate endDate) {
+}
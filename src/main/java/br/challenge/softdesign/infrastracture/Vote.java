@@ -2,37 +2,41 @@ package br.challenge.softdesign.infrastracture;
 
 import jakarta.persistence.*;
 
+import java.util.UUID;
+
 @Entity
 @Table(name = "vote")
 public class Vote {
 
     @Id
     @Column(name = "uuid")
-    public String uuid;
+    public UUID uuid;
 
     @Column(name = "cpf")
-    public String cpf;
+    public long cpf;
 
     @Column(name = "vote_in_favor")
     public boolean voteInFavor;
 
-    @OneToOne
-    @JoinColumn(name = "ruling_id")
-    public Ruling ruling;
+    @Column(name = "ruling_id")
+    public UUID rulingId;
+
+    @Column(name = "provisional")
+    public boolean provisional;
 
-    public String getUuid() {
+    public UUID getUuid() {
         return uuid;
     }
 
-    public void setUuid(String uuid) {
+    public void setUuid(UUID uuid) {
         this.uuid = uuid;
     }
 
-    public String getCpf() {
+    public long getCpf() {
         return cpf;
     }
 
-    public void setCpf(String cpf) {
+    public void setCpf(long cpf) {
         this.cpf = cpf;
     }
 
@@ -44,11 +48,19 @@ public class Vote {
         this.voteInFavor = voteInFavor;
     }
 
-    public Ruling getRuling() {
-        return ruling;
+    public UUID getRulingId() {
+        return rulingId;
+    }
+
+    public void setRulingId(UUID rulingId) {
+        this.rulingId = rulingId;
+    }
+
+    public boolean isProvisional() {
+        return provisional;
     }
 
-    public void setRuling(Ruling ruling) {
-        this.ruling = ruling;
+    public void setProvisional(boolean provisional) {
+        this.provisional = provisional;
     }
 }
@@ -0,0 +1,10 @@
+package br.challenge.softdesign.infrastracture;
+
+public record VoteTally(long votesInFavor, long votesAgainst) {
+
+    public static final VoteTally EMPTY = new VoteTally(0, 0);
+
+    public VoteTally plus(VoteTally other) {
+        return new VoteTally(votesInFavor + other.votesInFavor, votesAgainst + other.votesAgainst);
+    }
+}
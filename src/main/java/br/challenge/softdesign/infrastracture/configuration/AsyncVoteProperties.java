@@ -0,0 +1,14 @@
+package br.challenge.softdesign.infrastracture.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "ruling.vote.async")
+public record AsyncVoteProperties(@DefaultValue("false") boolean enabled,
+                                  @DefaultValue("10000") int queueCapacity,
+                                  @DefaultValue("500") int batchSize,
+                                  @DefaultValue("10m") Duration receiptRetention,
+                                  @DefaultValue("100000") long receiptCapacity) {
+}
@@ -0,0 +1,14 @@
+package br.challenge.softdesign.infrastracture.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "ruling.cpf-validator.cache")
+public record CpfEligibilityCacheProperties(@DefaultValue("true") boolean enabled,
+                                            @DefaultValue("100000") long maximumSize,
+                                            @DefaultValue("1h") Duration ableToVoteTtl,
+                                            @DefaultValue("5m") Duration unableToVoteTtl,
+                                            @DefaultValue("1h") Duration staleGrace) {
+}
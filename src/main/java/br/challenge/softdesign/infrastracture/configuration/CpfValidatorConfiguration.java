@@ -0,0 +1,125 @@
+package br.challenge.softdesign.infrastracture.configuration;
+
+import br.challenge.softdesign.domain.adapters.service.CpfEligibility;
+import br.challenge.softdesign.domain.adapters.service.UnavailableRulingException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+public class CpfValidatorConfiguration {
+
+    private static final String CPF_VALIDATOR = "cpfValidator";
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient cpfValidatorHttpClient(CpfValidatorProperties properties) {
+        final var connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.poolSize())
+                .setMaxConnPerRoute(properties.maxInFlight())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.connectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.readTimeout()))
+                        .setTimeToLive(TimeValue.of(properties.keepAlive()))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.acquireTimeout()))
+                        .setResponseTimeout(Timeout.of(properties.readTimeout()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(properties.keepAlive()))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.keepAlive()))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate cpfValidatorRestTemplate(RestTemplateBuilder restTemplateBuilder,
+                                                 CloseableHttpClient cpfValidatorHttpClient,
+                                                 CpfValidatorProperties properties) {
+        return restTemplateBuilder
+                .rootUri(properties.url())
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(cpfValidatorHttpClient))
+                .build();
+    }
+
+    @Bean
+    public Cache<Long, CpfEligibility> cpfEligibilityCache(CpfEligibilityCacheProperties properties, MeterRegistry meterRegistry) {
+        final Cache<Long, CpfEligibility> cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfter(new Expiry<Long, CpfEligibility>() {
+                    @Override
+                    public long expireAfterCreate(Long cpf, CpfEligibility eligibility, long currentTime) {
+                        final var ttl = eligibility == CpfEligibility.UNABLE_TO_VOTE
+                                ? properties.unableToVoteTtl()
+                                : properties.ableToVoteTtl();
+                        return ttl.plus(properties.staleGrace()).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long cpf, CpfEligibility eligibility, long currentTime, long currentDuration) {
+                        return expireAfterCreate(cpf, eligibility, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long cpf, CpfEligibility eligibility, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "cpf.eligibility");
+    }
+
+    @Bean
+    public CircuitBreaker cpfValidatorCircuitBreaker(CircuitBreakerRegistry circuitBreakerRegistry,
+                                                     CpfValidatorResilienceProperties properties,
+                                                     MeterRegistry meterRegistry) {
+        final var circuitBreaker = circuitBreakerRegistry.circuitBreaker(CPF_VALIDATOR, CircuitBreakerConfig.custom()
+                .failureRateThreshold(properties.failureRateThreshold())
+                .slowCallRateThreshold(properties.slowCallRateThreshold())
+                .slowCallDurationThreshold(properties.slowCallDurationThreshold())
+                .slidingWindowSize(properties.slidingWindowSize())
+                .minimumNumberOfCalls(properties.minimumNumberOfCalls())
+                .waitDurationInOpenState(properties.waitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(properties.permittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordExceptions(UnavailableRulingException.class, HttpServerErrorException.class)
+                .build());
+        circuitBreaker.getEventPublisher().onStateTransition(event -> meterRegistry.counter("cpf.validator.circuit.transitions",
+                "from", event.getStateTransition().getFromState().name(),
+                "to", event.getStateTransition().getToState().name()).increment());
+        return circuitBreaker;
+    }
+
+    @Bean
+    public Bulkhead cpfValidatorBulkhead(BulkheadRegistry bulkheadRegistry, CpfValidatorResilienceProperties properties) {
+        return bulkheadRegistry.bulkhead(CPF_VALIDATOR, BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.maxConcurrentCalls())
+                .maxWaitDuration(properties.maxWaitDuration())
+                .build());
+    }
+}
@@ -0,0 +1,21 @@
+package br.challenge.softdesign.infrastracture.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "ruling.cpf-validator")
+public record CpfValidatorProperties(@DefaultValue("") String url,
+                                     @DefaultValue("1s") Duration connectTimeout,
+                                     @DefaultValue("2s") Duration readTimeout,
+                                     @DefaultValue("500ms") Duration acquireTimeout,
+                                     @DefaultValue("30s") Duration keepAlive,
+                                     @DefaultValue("100") int poolSize,
+                                     @DefaultValue("50") int maxInFlight,
+                                     @DefaultValue("16") int platformThreads) {
+
+    public boolean isEnabled() {
+        return !url.isBlank();
+    }
+}
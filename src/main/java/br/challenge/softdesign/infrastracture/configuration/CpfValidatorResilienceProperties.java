@@ -0,0 +1,20 @@
+package br.challenge.softdesign.infrastracture.configuration;
+
+import br.challenge.softdesign.domain.adapters.service.CpfValidatorDegradedPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "ruling.cpf-validator.resilience")
+public record CpfValidatorResilienceProperties(@DefaultValue("FAIL_FAST") CpfValidatorDegradedPolicy degradedPolicy,
+                                               @DefaultValue("50") float failureRateThreshold,
+                                               @DefaultValue("50") float slowCallRateThreshold,
+                                               @DefaultValue("1s") Duration slowCallDurationThreshold,
+                                               @DefaultValue("20") int slidingWindowSize,
+                                               @DefaultValue("10") int minimumNumberOfCalls,
+                                               @DefaultValue("30s") Duration waitDurationInOpenState,
+                                               @DefaultValue("3") int permittedCallsInHalfOpenState,
+                                               @DefaultValue("25") int maxConcurrentCalls,
+                                               @DefaultValue("0ms") Duration maxWaitDuration) {
+}
@@ -0,0 +1,21 @@
+package br.challenge.softdesign.infrastracture.configuration;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ExecutorConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService eligibilityExecutor(Environment environment, CpfValidatorProperties properties) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cpf-eligibility-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(properties.platformThreads(), Thread.ofPlatform().name("cpf-eligibility-", 0).daemon().factory());
+    }
+}
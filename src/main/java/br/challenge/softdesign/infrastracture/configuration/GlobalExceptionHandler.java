@@ -1,6 +1,7 @@
 package br.challenge.softdesign.infrastracture.configuration;
 
 import br.challenge.softdesign.domain.adapters.service.NotFoundRulingException;
+import br.challenge.softdesign.domain.adapters.service.UnavailableRulingException;
 import br.challenge.softdesign.domain.adapters.service.ValidationRulingException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -26,6 +27,11 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(ex.getLocalizedMessage());
     }
 
+    @ExceptionHandler(UnavailableRulingException.class)
+    public ResponseEntity<String> handleUnavailableExceptions(final UnavailableRulingException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_JSON).body(ex.getLocalizedMessage());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(final MethodArgumentNotValidException ex) {
         return ResponseEntity.badRequest()
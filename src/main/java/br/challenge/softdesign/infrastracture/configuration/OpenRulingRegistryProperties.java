@@ -0,0 +1,13 @@
+package br.challenge.softdesign.infrastracture.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "ruling.registry")
+public record OpenRulingRegistryProperties(@DefaultValue("true") boolean enabled,
+                                           @DefaultValue("PT1M") Duration refreshInterval,
+                                           @DefaultValue("5s") Duration missTtl,
+                                           @DefaultValue("10000") long missCacheSize) {
+}
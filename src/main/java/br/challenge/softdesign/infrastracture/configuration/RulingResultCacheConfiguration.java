@@ -0,0 +1,43 @@
+package br.challenge.softdesign.infrastracture.configuration;
+
+import br.challenge.softdesign.application.controller.ResultRuling;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.UUID;
+
+@Configuration
+public class RulingResultCacheConfiguration {
+
+    @Bean
+    public Cache<UUID, ResultRuling> resultRulingCache(RulingResultCacheProperties properties, MeterRegistry meterRegistry) {
+        final Cache<UUID, ResultRuling> cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfter(new Expiry<UUID, ResultRuling>() {
+                    // open rulings are invalidated on every accepted vote and closed ones when reopened here; the TTLs
+                    // bound how long votes counted, or a reopening, on another instance can go unnoticed
+                    @Override
+                    public long expireAfterCreate(UUID rulingUuid, ResultRuling result, long currentTime) {
+                        return result.isFinal() ? properties.closedRulingTtl().toNanos() : properties.openRulingTtl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(UUID rulingUuid, ResultRuling result, long currentTime, long currentDuration) {
+                        return expireAfterCreate(rulingUuid, result, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(UUID rulingUuid, ResultRuling result, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "ruling.result");
+    }
+}
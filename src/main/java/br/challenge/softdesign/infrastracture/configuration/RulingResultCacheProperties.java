@@ -0,0 +1,13 @@
+package br.challenge.softdesign.infrastracture.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "ruling.result.cache")
+public record RulingResultCacheProperties(@DefaultValue("true") boolean enabled,
+                                          @DefaultValue("10000") long maximumSize,
+                                          @DefaultValue("5s") Duration openRulingTtl,
+                                          @DefaultValue("1h") Duration closedRulingTtl) {
+}
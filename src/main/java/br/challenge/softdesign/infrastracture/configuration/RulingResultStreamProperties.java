@@ -0,0 +1,15 @@
+package br.challenge.softdesign.infrastracture.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "ruling.result.stream")
+public record RulingResultStreamProperties(@DefaultValue("1s") Duration minInterval,
+                                           @DefaultValue("15s") Duration heartbeatInterval,
+                                           @DefaultValue("3s") Duration reconnectDelay,
+                                           @DefaultValue("30m") Duration timeout,
+                                           @DefaultValue("4") int senderThreads,
+                                           @DefaultValue("10000") int senderQueueCapacity) {
+}
@@ -0,0 +1,14 @@
+package br.challenge.softdesign.infrastracture.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "ruling.vote.archive")
+public record VoteArchiveProperties(@DefaultValue("false") boolean enabled,
+                                    @DefaultValue("30d") Duration retention,
+                                    @DefaultValue("PT1H") Duration interval,
+                                    @DefaultValue("100") int batchSize,
+                                    @DefaultValue("10000") int chunkSize) {
+}
@@ -0,0 +1,8 @@
+package br.challenge.softdesign.infrastracture.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "ruling.vote.export")
+public record VoteExportProperties(@DefaultValue("1000") int fetchSize) {
+}
@@ -0,0 +1,10 @@
+package br.challenge.softdesign.infrastracture.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "ruling.vote.bloom-filter")
+public record VoterBloomFilterProperties(@DefaultValue("true") boolean enabled,
+                                         @DefaultValue("100000") long expectedVoters,
+                                         @DefaultValue("0.01") double falsePositiveRate) {
+}
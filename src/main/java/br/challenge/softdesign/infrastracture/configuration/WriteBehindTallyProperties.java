@@ -0,0 +1,11 @@
+package br.challenge.softdesign.infrastracture.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "ruling.tally.write-behind")
+public record WriteBehindTallyProperties(@DefaultValue("false") boolean enabled,
+                                         @DefaultValue("PT1S") Duration flushInterval) {
+}
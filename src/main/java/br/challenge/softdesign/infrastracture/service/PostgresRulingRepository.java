@@ -1,21 +1,39 @@
 package br.challenge.softdesign.infrastracture.service;
 
+import br.challenge.softdesign.infrastracture.OpenRuling;
 import br.challenge.softdesign.infrastracture.Ruling;
 import br.challenge.softdesign.domain.adapters.repository.RulingRepository;
+import br.challenge.softdesign.infrastracture.RulingSummary;
+import br.challenge.softdesign.infrastracture.VoteTally;
+import org.springframework.data.domain.Limit;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 public class PostgresRulingRepository implements RulingRepository {
 
     private final SpringDataRulingRepository rulingRepository;
+    private final SpringDataRulingCounterShardRepository counterShardRepository;
+    private final SpringDataRulingResultRepository resultRepository;
+
+    // counter_shards never changes after the ruling is created, so it is safe to remember it
+    private final Map<UUID, Integer> counterShardsByRuling = new ConcurrentHashMap<>();
 
     @Autowired
-    public PostgresRulingRepository(SpringDataRulingRepository rulingRepository) {
+    public PostgresRulingRepository(SpringDataRulingRepository rulingRepository,
+                                    SpringDataRulingCounterShardRepository counterShardRepository,
+                                    SpringDataRulingResultRepository resultRepository) {
         this.rulingRepository = rulingRepository;
+        this.counterShardRepository = counterShardRepository;
+        this.resultRepository = resultRepository;
     }
 
     @Override
@@ -23,14 +41,117 @@ public class PostgresRulingRepository implements RulingRepository {
         return rulingRepository.findAllByAvailable(available);
     }
 
+    @Override
+    public List<RulingSummary> listPage(boolean available, UUID after, int limit) {
+        return after == null
+                ? rulingRepository.findSummaries(available, Limit.of(limit))
+                : rulingRepository.findSummariesAfter(available, after, Limit.of(limit));
+    }
+
+    @Override
+    public List<OpenRuling> listOpen() {
+        return rulingRepository.findOpenRulings();
+    }
+
+    @Override
+    public Optional<OpenRuling> findOpen(UUID uuid) {
+        return rulingRepository.findOpenRuling(uuid);
+    }
+
     @Override
     public Optional<Ruling> findById(UUID uuid) {
-        return rulingRepository.findById(uuid.toString());
+        return rulingRepository.findById(uuid);
+    }
+
+    @Override
+    public Optional<LocalDate> findEndDate(UUID uuid) {
+        return rulingRepository.findEndDateByUuid(uuid);
     }
 
     @Override
     public UUID save(Ruling ruling) {
         final var savedRuling = rulingRepository.save(ruling);
-        return UUID.fromString(savedRuling.getUuid());
+        return savedRuling.getUuid();
+    }
+
+    @Override
+    public void updateAvailable(UUID uuid, boolean available) {
+        rulingRepository.updateAvailable(uuid, available);
+    }
+
+    @Override
+    public boolean countVotes(UUID uuid, int votesInFavor, int votesAgainst) {
+        final var counterShards = counterShardsOf(uuid);
+        if (counterShards.isEmpty()) {
+            return false;
+        }
+
+        final int updatedRows;
+        if (counterShards.get() > 1) {
+            // the shard update leaves the ruling row alone, so a close would not wait for this vote
+            if (!lockOpenForVoting(uuid)) {
+                return false;
+            }
+            final var slot = ThreadLocalRandom.current().nextInt(counterShards.get());
+            updatedRows = counterShardRepository.addVotes(uuid, slot, votesInFavor, votesAgainst);
+        } else {
+            updatedRows = rulingRepository.addVotes(uuid, votesInFavor, votesAgainst);
+        }
+        return updatedRows == 1;
+    }
+
+    @Override
+    public void applyVotes(UUID uuid, int votesInFavor, int votesAgainst) {
+        rulingRepository.applyVotes(uuid, votesInFavor, votesAgainst);
+    }
+
+    @Override
+    public boolean isOpenForVoting(UUID uuid) {
+        return rulingRepository.existsByUuidAndAvailableTrueAndEndDateGreaterThanEqual(uuid, LocalDate.now());
+    }
+
+    @Override
+    public boolean lockOpenForVoting(UUID uuid) {
+        return rulingRepository.lockOpenForVoting(uuid).isPresent();
+    }
+
+    @Override
+    public void createCounterShards(UUID uuid, int counterShards) {
+        for (int slot = 0; slot < counterShards; slot++) {
+            counterShardRepository.createSlot(uuid, slot);
+        }
+        counterShardsByRuling.put(uuid, counterShards);
+    }
+
+    @Override
+    public VoteTally sumCounterShards(UUID uuid) {
+        return counterShardRepository.sumByRulingId(uuid);
+    }
+
+    @Override
+    public Optional<VoteTally> findResult(UUID uuid) {
+        return resultRepository.findTallyByRulingId(uuid);
+    }
+
+    @Override
+    public boolean saveResult(UUID uuid, VoteTally result) {
+        return resultRepository.createIfClosed(uuid, result.votesInFavor(), result.votesAgainst(), LocalDateTime.now()) == 1;
+    }
+
+    @Override
+    public void deleteResult(UUID uuid) {
+        resultRepository.deleteByRulingId(uuid);
+    }
+
+    private Optional<Integer> counterShardsOf(UUID uuid) {
+        final var counterShards = counterShardsByRuling.get(uuid);
+        if (counterShards != null) {
+            return Optional.of(counterShards);
+        }
+        return rulingRepository.findCounterShardsByUuid(uuid)
+                .map(found -> {
+                    counterShardsByRuling.put(uuid, found);
+                    return found;
+                });
     }
 }
@@ -1,29 +1,260 @@
 package br.challenge.softdesign.infrastracture.service;
 
 import br.challenge.softdesign.domain.adapters.repository.VoteRepository;
+import br.challenge.softdesign.infrastracture.ExportedVote;
 import br.challenge.softdesign.infrastracture.Vote;
+import br.challenge.softdesign.infrastracture.VoteTally;
+import br.challenge.softdesign.infrastracture.configuration.VoteArchiveProperties;
+import br.challenge.softdesign.infrastracture.configuration.VoteExportProperties;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @Component
 public class PostgresVoteRepository implements VoteRepository {
 
+    private static final String INSERT_IGNORING_DUPLICATE = "insert into vote (uuid, ruling_id, cpf, vote_in_favor, provisional) " +
+            "values (:uuid, :rulingId, :cpf, :voteInFavor, :provisional) on conflict do nothing";
+    private static final String SELECT_VOTES_OF_RULING = "select uuid, cpf, vote_in_favor, provisional from vote where ruling_id = ?";
+    private static final String SELECT_ARCHIVED_VOTES_OF_RULING = "select votes from vote_archive where ruling_id = ? order by chunk";
+    private static final String INSERT_ARCHIVE_CHUNK = "insert into vote_archive (ruling_id, chunk, vote_count, votes, archived_at) " +
+            "values (:rulingId, :chunk, :voteCount, :votes, :archivedAt)";
+    private static final String COUNT_VOTES_OF_RULING = "select coalesce(sum(case when vote_in_favor then 1 else 0 end), 0), count(*) " +
+            "from vote where ruling_id = :rulingId";
+    private static final String SELECT_RULINGS_TO_ARCHIVE = "select r.uuid from ruling r where r.available = false and r.end_date < :endedBefore " +
+            "and exists (select 1 from vote v where v.ruling_id = r.uuid) order by r.end_date limit :limit";
+    private static final int IN_FAVOR = 1;
+    private static final int PROVISIONAL = 2;
+
     private final SpringDataVoteRepository voteRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final VoteExportProperties exportProperties;
+    private final VoteArchiveProperties archiveProperties;
 
     @Autowired
-    public PostgresVoteRepository(SpringDataVoteRepository voteRepository) {
+    public PostgresVoteRepository(SpringDataVoteRepository voteRepository,
+                                  NamedParameterJdbcTemplate jdbcTemplate,
+                                  VoteExportProperties exportProperties,
+                                  VoteArchiveProperties archiveProperties) {
         this.voteRepository = voteRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.exportProperties = exportProperties;
+        this.archiveProperties = archiveProperties;
+    }
+
+    @Override
+    public boolean existsVoteByCpfAndRulingUuid(long cpf, UUID rulingUuid) {
+        return voteRepository.existsVoteByCpfAndRulingId(cpf, rulingUuid);
+    }
+
+    // written with plain JDBC: going through JPA would merge the vote, selecting it before the insert
+    @Override
+    public Optional<UUID> save(Vote vote) {
+        final var insertedRows = jdbcTemplate.update(INSERT_IGNORING_DUPLICATE, parametersOf(vote));
+        return insertedRows == 1 ? Optional.of(vote.getUuid()) : Optional.empty();
+    }
+
+    @Override
+    public void forEachCpf(UUID rulingUuid, LongConsumer consumer) {
+        jdbcTemplate.query("select cpf from vote where ruling_id = :rulingId",
+                new MapSqlParameterSource("rulingId", rulingUuid),
+                (RowCallbackHandler) resultSet -> consumer.accept(resultSet.getLong(1)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachVote(UUID rulingUuid, Consumer<ExportedVote> consumer) {
+        if (!forEachArchivedVote(rulingUuid, consumer)) {
+            forEachLiveVote(rulingUuid, consumer);
+        }
+    }
+
+    // an archived ruling has no rows left in vote, its votes are counted from the archive
+    @Override
+    @Transactional(readOnly = true)
+    public VoteTally countVotes(UUID rulingUuid) {
+        final var votesInFavor = new long[1];
+        final var votes = new long[1];
+        final var archived = forEachArchivedVote(rulingUuid, vote -> {
+            votesInFavor[0] += vote.voteInFavor() ? 1 : 0;
+            votes[0]++;
+        });
+        if (archived) {
+            return new VoteTally(votesInFavor[0], votes[0] - votesInFavor[0]);
+        }
+        return jdbcTemplate.queryForObject(COUNT_VOTES_OF_RULING, new MapSqlParameterSource("rulingId", rulingUuid),
+                (resultSet, row) -> new VoteTally(resultSet.getLong(1), resultSet.getLong(2) - resultSet.getLong(1)));
+    }
+
+    @Override
+    public List<UUID> findRulingsToArchive(LocalDate endedBefore, int limit) {
+        return jdbcTemplate.queryForList(SELECT_RULINGS_TO_ARCHIVE,
+                new MapSqlParameterSource().addValue("endedBefore", endedBefore).addValue("limit", limit),
+                UUID.class);
     }
 
+    // the votes of a ruling become gzip chunks of fixed-size records, 25 bytes per vote before compression;
+    // they are read through the cursor and written one chunk at a time
     @Override
-    public boolean existsVoteByCpfAndRulingUuid(String cpf, String rulingUuid) {
-        return voteRepository.existsVoteByCpfAndRulingUuid(cpf, rulingUuid);
+    @Transactional
+    public int archive(UUID rulingUuid) {
+        final var chunks = new ArchiveChunks(rulingUuid);
+        forEachLiveVote(rulingUuid, chunks::add);
+        chunks.flush();
+        if (chunks.archivedVotes == 0) {
+            return 0;
+        }
+
+        jdbcTemplate.update("delete from vote where ruling_id = :rulingId", new MapSqlParameterSource("rulingId", rulingUuid));
+        return chunks.archivedVotes;
+    }
+
+    // the Postgres driver only streams with a cursor inside a transaction; otherwise it reads every row up front
+    private void forEachLiveVote(UUID rulingUuid, Consumer<ExportedVote> consumer) {
+        jdbcTemplate.getJdbcOperations().query(connection -> {
+                    final var statement = connection.prepareStatement(SELECT_VOTES_OF_RULING);
+                    statement.setObject(1, rulingUuid);
+                    statement.setFetchSize(exportProperties.fetchSize());
+                    return statement;
+                },
+                (RowCallbackHandler) resultSet -> consumer.accept(new ExportedVote(resultSet.getObject(1, UUID.class),
+                        resultSet.getLong(2),
+                        resultSet.getBoolean(3),
+                        resultSet.getBoolean(4))));
+    }
+
+    // one chunk is read at a time; false when the ruling has not been archived
+    private boolean forEachArchivedVote(UUID rulingUuid, Consumer<ExportedVote> consumer) {
+        final var archived = new boolean[1];
+        jdbcTemplate.getJdbcOperations().query(connection -> {
+                    final var statement = connection.prepareStatement(SELECT_ARCHIVED_VOTES_OF_RULING);
+                    statement.setObject(1, rulingUuid);
+                    statement.setFetchSize(1);
+                    return statement;
+                },
+                (RowCallbackHandler) resultSet -> {
+                    archived[0] = true;
+                    try (var input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(resultSet.getBinaryStream(1))))) {
+                        forEachArchivedVote(input, consumer);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return archived[0];
+    }
+
+    private static void forEachArchivedVote(DataInputStream input, Consumer<ExportedVote> consumer) throws IOException {
+        while (true) {
+            final long mostSignificantBits;
+            try {
+                mostSignificantBits = input.readLong();
+            } catch (EOFException e) {
+                return;
+            }
+            final var uuid = new UUID(mostSignificantBits, input.readLong());
+            final var cpf = input.readLong();
+            final var flags = input.readByte();
+            consumer.accept(new ExportedVote(uuid, cpf, (flags & IN_FAVOR) != 0, (flags & PROVISIONAL) != 0));
+        }
     }
 
     @Override
-    public UUID save(Vote vote) {
-        return UUID.fromString(voteRepository.save(vote).getUuid());
+    public List<Optional<UUID>> saveAll(List<Vote> votes) {
+        final var parameters = votes.stream()
+                .map(PostgresVoteRepository::parametersOf)
+                .toArray(SqlParameterSource[]::new);
+
+        final var insertedRows = jdbcTemplate.batchUpdate(INSERT_IGNORING_DUPLICATE, parameters);
+
+        final var saved = new ArrayList<Optional<UUID>>(votes.size());
+        for (int i = 0; i < votes.size(); i++) {
+            saved.add(insertedRows[i] == 1 ? Optional.of(votes.get(i).getUuid()) : Optional.empty());
+        }
+        return saved;
+    }
+
+    private static SqlParameterSource parametersOf(Vote vote) {
+        return new MapSqlParameterSource()
+                .addValue("uuid", vote.getUuid())
+                .addValue("rulingId", vote.getRulingId())
+                .addValue("cpf", vote.getCpf())
+                .addValue("voteInFavor", vote.isVoteInFavor())
+                .addValue("provisional", vote.isProvisional());
+    }
+
+    private final class ArchiveChunks {
+
+        private final UUID rulingUuid;
+        private ByteArrayOutputStream buffer;
+        private DataOutputStream output;
+        private int chunk;
+        private int votesInChunk;
+        private int archivedVotes;
+
+        private ArchiveChunks(UUID rulingUuid) {
+            this.rulingUuid = rulingUuid;
+        }
+
+        private void add(ExportedVote vote) {
+            try {
+                if (output == null) {
+                    buffer = new ByteArrayOutputStream();
+                    output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(buffer)));
+                }
+                output.writeLong(vote.uuid().getMostSignificantBits());
+                output.writeLong(vote.uuid().getLeastSignificantBits());
+                output.writeLong(vote.cpf());
+                output.writeByte((vote.voteInFavor() ? IN_FAVOR : 0) | (vote.provisional() ? PROVISIONAL : 0));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (++votesInChunk == archiveProperties.chunkSize()) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (votesInChunk == 0) {
+                return;
+            }
+            try {
+                output.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            jdbcTemplate.update(INSERT_ARCHIVE_CHUNK, new MapSqlParameterSource()
+                    .addValue("rulingId", rulingUuid)
+                    .addValue("chunk", chunk++)
+                    .addValue("voteCount", votesInChunk)
+                    .addValue("votes", buffer.toByteArray())
+                    .addValue("archivedAt", LocalDateTime.now()));
+            archivedVotes += votesInChunk;
+            votesInChunk = 0;
+            buffer = null;
+            output = null;
+        }
     }
 }
@@ -0,0 +1,33 @@
+package br.challenge.softdesign.infrastracture.service;
+
+import br.challenge.softdesign.infrastracture.RulingCounterShard;
+import br.challenge.softdesign.infrastracture.VoteTally;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface SpringDataRulingCounterShardRepository extends JpaRepository<RulingCounterShard, RulingCounterShard.Key> {
+
+    @Modifying
+    @Query(value = "insert into ruling_counter_shard (ruling_id, slot, votes_in_favor, votes_against) " +
+            "values (:rulingId, :slot, 0, 0)", nativeQuery = true)
+    void createSlot(@Param("rulingId") UUID rulingId, @Param("slot") int slot);
+
+    @Modifying
+    @Query("update RulingCounterShard s set s.votesInFavor = s.votesInFavor + :votesInFavor, s.votesAgainst = s.votesAgainst + :votesAgainst " +
+            "where s.rulingId = :rulingId and s.slot = :slot and exists (" +
+            "select r.uuid from Ruling r where r.uuid = :rulingId and r.available = true and r.endDate >= current_date)")
+    int addVotes(@Param("rulingId") UUID rulingId,
+                 @Param("slot") int slot,
+                 @Param("votesInFavor") int votesInFavor,
+                 @Param("votesAgainst") int votesAgainst);
+
+    @Query("select new br.challenge.softdesign.infrastracture.VoteTally(coalesce(sum(s.votesInFavor), 0), coalesce(sum(s.votesAgainst), 0)) " +
+            "from RulingCounterShard s where s.rulingId = :rulingId")
+    VoteTally sumByRulingId(@Param("rulingId") UUID rulingId);
+}
@@ -1,13 +1,72 @@
 package br.challenge.softdesign.infrastracture.service;
 
+import br.challenge.softdesign.infrastracture.OpenRuling;
 import br.challenge.softdesign.infrastracture.Ruling;
+import br.challenge.softdesign.infrastracture.RulingSummary;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Repository
-public interface SpringDataRulingRepository extends JpaRepository<Ruling, String> {
+public interface SpringDataRulingRepository extends JpaRepository<Ruling, UUID> {
 
     List<Ruling> findAllByAvailable(Boolean available);
+
+    @Query("select new br.challenge.softdesign.infrastracture.RulingSummary(r.uuid, r.title, r.description, r.endDate) " +
+            "from Ruling r where r.available = :available order by r.uuid")
+    List<RulingSummary> findSummaries(@Param("available") boolean available, Limit limit);
+
+    @Query("select new br.challenge.softdesign.infrastracture.RulingSummary(r.uuid, r.title, r.description, r.endDate) " +
+            "from Ruling r where r.available = :available and r.uuid > :after order by r.uuid")
+    List<RulingSummary> findSummariesAfter(@Param("available") boolean available, @Param("after") UUID after, Limit limit);
+
+    boolean existsByUuidAndAvailableTrueAndEndDateGreaterThanEqual(UUID uuid, LocalDate date);
+
+    @Query("select new br.challenge.softdesign.infrastracture.OpenRuling(r.uuid, r.endDate) from Ruling r where r.available = true")
+    List<OpenRuling> findOpenRulings();
+
+    @Query("select new br.challenge.softdesign.infrastracture.OpenRuling(r.uuid, r.endDate) from Ruling r where r.uuid = :uuid and r.available = true")
+    Optional<OpenRuling> findOpenRuling(@Param("uuid") UUID uuid);
+
+    @Query("select r.endDate from Ruling r where r.uuid = :uuid")
+    Optional<LocalDate> findEndDateByUuid(@Param("uuid") UUID uuid);
+
+    // a shared lock: votes do not block each other, but a close waits for them and the votes after it see it closed
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select r from Ruling r where r.uuid = :uuid and r.available = true and r.endDate >= current_date")
+    Optional<Ruling> lockOpenForVoting(@Param("uuid") UUID uuid);
+
+    @Query("select r.counterShards from Ruling r where r.uuid = :uuid")
+    Optional<Integer> findCounterShardsByUuid(@Param("uuid") UUID uuid);
+
+    @Modifying
+    @Query("update Ruling r set r.votesInFavor = r.votesInFavor + :votesInFavor, r.votesAgainst = r.votesAgainst + :votesAgainst " +
+            "where r.uuid = :uuid and r.available = true and r.endDate >= current_date")
+    int addVotes(@Param("uuid") UUID uuid,
+                 @Param("votesInFavor") int votesInFavor,
+                 @Param("votesAgainst") int votesAgainst);
+
+    @Transactional
+    @Modifying
+    @Query("update Ruling r set r.available = :available where r.uuid = :uuid")
+    int updateAvailable(@Param("uuid") UUID uuid, @Param("available") boolean available);
+
+    @Transactional
+    @Modifying
+    @Query("update Ruling r set r.votesInFavor = r.votesInFavor + :votesInFavor, r.votesAgainst = r.votesAgainst + :votesAgainst " +
+            "where r.uuid = :uuid")
+    int applyVotes(@Param("uuid") UUID uuid,
+                   @Param("votesInFavor") int votesInFavor,
+                   @Param("votesAgainst") int votesAgainst);
 }
@@ -0,0 +1,38 @@
+package br.challenge.softdesign.infrastracture.service;
+
+import br.challenge.softdesign.infrastracture.RulingResult;
+import br.challenge.softdesign.infrastracture.VoteTally;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface SpringDataRulingResultRepository extends JpaRepository<RulingResult, UUID> {
+
+    @Query("select new br.challenge.softdesign.infrastracture.VoteTally(r.votesInFavor, r.votesAgainst) " +
+            "from RulingResult r where r.rulingId = :rulingId")
+    Optional<VoteTally> findTallyByRulingId(@Param("rulingId") UUID rulingId);
+
+    // only a closed ruling gets a snapshot, and the first one written is kept
+    @Transactional
+    @Modifying
+    @Query(value = "insert into ruling_result (ruling_id, votes_in_favor, votes_against, closed_at) " +
+            "select r.uuid, :votesInFavor, :votesAgainst, :closedAt from ruling r where r.uuid = :rulingId and r.available = false " +
+            "on conflict do nothing", nativeQuery = true)
+    int createIfClosed(@Param("rulingId") UUID rulingId,
+                       @Param("votesInFavor") long votesInFavor,
+                       @Param("votesAgainst") long votesAgainst,
+                       @Param("closedAt") LocalDateTime closedAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RulingResult r where r.rulingId = :rulingId")
+    int deleteByRulingId(@Param("rulingId") UUID rulingId);
+}
@@ -4,7 +4,9 @@ import br.challenge.softdesign.infrastracture.Vote;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.UUID;
+
 @Repository
-public interface SpringDataVoteRepository extends JpaRepository<Vote, String>{
-    boolean existsVoteByCpfAndRulingUuid(String cpf, String rulingUuid);
+public interface SpringDataVoteRepository extends JpaRepository<Vote, UUID>{
+    boolean existsVoteByCpfAndRulingId(long cpf, UUID rulingId);
 }
@@ -0,0 +1,174 @@
+package br.challenge.softdesign;
+
+import br.challenge.softdesign.application.controller.CreateRuling;
+import br.challenge.softdesign.application.controller.VoteOnRuling;
+import br.challenge.softdesign.application.controller.VoteOutcome;
+import br.challenge.softdesign.application.controller.VoteStatus;
+import br.challenge.softdesign.domain.adapters.service.RulingService;
+import br.challenge.softdesign.domain.adapters.service.UnavailableRulingException;
+import br.challenge.softdesign.domain.adapters.service.VoteIngestionPipeline;
+import br.challenge.softdesign.infrastracture.configuration.AsyncVoteProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "ruling.vote.async.enabled=true")
+@AutoConfigureMockMvc
+class AsyncVoteIngestionTests {
+
+    private final MockMvc mockMvc;
+    private final ObjectMapper objectMapper;
+    private final RulingService rulingService;
+
+    @Autowired
+    public AsyncVoteIngestionTests(MockMvc mockMvc, ObjectMapper objectMapper, RulingService rulingService) {
+        this.mockMvc = mockMvc;
+        this.objectMapper = objectMapper;
+        this.rulingService = rulingService;
+    }
+
+    @Test
+    void voteOnRuling_isAcceptedAsynchronously() throws Exception {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+
+        final var receipt = submit(new VoteOnRuling(rulingUuid, "111.222.333-44", true));
+
+        awaitOutcome(receipt)
+                .andExpect(jsonPath("$.status").value("ACCEPTED"))
+                .andExpect(jsonPath("$.vote_id").isString());
+    }
+
+    @Test
+    void voteOnRuling_duplicatedVoteIsRejectedAsynchronously() throws Exception {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+
+        awaitOutcome(submit(new VoteOnRuling(rulingUuid, "555.666.777-88", true)))
+                .andExpect(jsonPath("$.status").value("ACCEPTED"));
+        awaitOutcome(submit(new VoteOnRuling(rulingUuid, "555.666.777-88", false)))
+                .andExpect(jsonPath("$.status").value("REJECTED"))
+                .andExpect(jsonPath("$.reason").value("The vote has already been registered."));
+    }
+
+    @Test
+    void voteOutcome_receiptNotFound() throws Exception {
+        this.mockMvc.perform(get(String.format("/ruling/vote/%s", UUID.randomUUID()))
+                        .header("X-API-Version", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void submit_afterStopIsRefused() {
+        final var pipeline = new VoteIngestionPipeline(rulingService, new AsyncVoteProperties(true, 10, 10, Duration.ofMinutes(10), 100));
+        pipeline.start();
+        pipeline.stop();
+
+        assertThrows(UnavailableRulingException.class,
+                () -> pipeline.submit(new VoteOnRuling(UUID.randomUUID(), "111.222.333-44", true)));
+    }
+
+    @Test
+    void stop_interruptedRejectsTheQueuedVotes() throws Exception {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        final var writing = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var blockingRulingService = (RulingService) Proxy.newProxyInstance(RulingService.class.getClassLoader(),
+                new Class<?>[]{RulingService.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("tallyVotes")) {
+                        writing.countDown();
+                        release.await();
+                    }
+                    return method.invoke(rulingService, args);
+                });
+        final var pipeline = new VoteIngestionPipeline(blockingRulingService, new AsyncVoteProperties(true, 10, 10, Duration.ofMinutes(10), 100));
+        pipeline.start();
+
+        final var written = pipeline.submit(new VoteOnRuling(rulingUuid, "222.333.444-55", true));
+        writing.await();
+        final var queued = pipeline.submit(new VoteOnRuling(rulingUuid, "333.444.555-66", true));
+        Thread.currentThread().interrupt();
+        pipeline.stop();
+        Thread.interrupted();
+
+        assertEquals(Optional.of(VoteOutcome.rejected("The vote could not be registered.")), pipeline.outcomeOf(queued));
+        release.countDown();
+        final var deadline = System.currentTimeMillis() + 5_000;
+        while (pipeline.outcomeOf(written).map(VoteOutcome::status).orElseThrow() == VoteStatus.PENDING
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(VoteStatus.ACCEPTED, pipeline.outcomeOf(written).map(VoteOutcome::status).orElseThrow());
+    }
+
+    @Test
+    void write_failingRulingDoesNotRejectTheOthersInTheBatch() throws Exception {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        final var failingRulingUuid = UUID.randomUUID();
+        final var release = new CountDownLatch(1);
+        final var failingRulingService = (RulingService) Proxy.newProxyInstance(RulingService.class.getClassLoader(),
+                new Class<?>[]{RulingService.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("tallyVotes")) {
+                        release.await();
+                        if (((List<?>) args[0]).stream().anyMatch(vote -> ((VoteOnRuling) vote).rulingId().equals(failingRulingUuid))) {
+                            throw new IllegalStateException("Ruling " + failingRulingUuid + " cannot be written");
+                        }
+                    }
+                    return method.invoke(rulingService, args);
+                });
+        final var pipeline = new VoteIngestionPipeline(failingRulingService, new AsyncVoteProperties(true, 10, 10, Duration.ofMinutes(10), 100));
+        pipeline.start();
+
+        final var failing = pipeline.submit(new VoteOnRuling(failingRulingUuid, "444.555.666-77", true));
+        final var accepted = pipeline.submit(new VoteOnRuling(rulingUuid, "444.555.666-77", true));
+        release.countDown();
+        pipeline.stop();
+
+        assertEquals(Optional.of(VoteOutcome.rejected("The vote could not be registered.")), pipeline.outcomeOf(failing));
+        assertEquals(VoteStatus.ACCEPTED, pipeline.outcomeOf(accepted).map(VoteOutcome::status).orElseThrow());
+    }
+
+    private UUID submit(VoteOnRuling voteOnRuling) throws Exception {
+        final var response = this.mockMvc.perform(post("/ruling/vote")
+                        .header("X-API-Version", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(voteOnRuling)))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        return UUID.fromString(response.getResponse().getContentAsString().replace("\"", ""));
+    }
+
+    private ResultActions awaitOutcome(UUID receipt) throws Exception {
+        final var deadline = System.currentTimeMillis() + 5_000;
+        while (true) {
+            final var result = this.mockMvc.perform(get(String.format("/ruling/vote/%s", receipt))
+                            .header("X-API-Version", "1")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+            final var body = result.andReturn().getResponse().getContentAsString();
+            if (!body.contains("PENDING") || System.currentTimeMillis() > deadline) {
+                return result;
+            }
+            Thread.sleep(50);
+        }
+    }
+}
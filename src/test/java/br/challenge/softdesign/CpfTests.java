@@ -0,0 +1,45 @@
+package br.challenge.softdesign;
+
+import br.challenge.softdesign.domain.adapters.service.Cpf;
+import br.challenge.softdesign.domain.adapters.service.LongHashSet;
+import br.challenge.softdesign.domain.adapters.service.ValidationRulingException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+class CpfTests {
+
+    @Test
+    void testParse_formattedCpf() {
+        Assertions.assertEquals(12345678900L, Cpf.parse("123.456.789-00"));
+        Assertions.assertEquals(1L, Cpf.parse("000.000.000-01"));
+    }
+
+    @Test
+    void testFormat_keepsLeadingZeros() {
+        Assertions.assertEquals("123.456.789-00", Cpf.format(12345678900L));
+        Assertions.assertEquals("000.000.000-01", Cpf.format(1L));
+        Assertions.assertEquals("999.999.999-99", Cpf.format(Cpf.parse("999.999.999-99")));
+    }
+
+    @Test
+    void testParse_invalidFormat() {
+        Assertions.assertThrows(ValidationRulingException.class, () -> Cpf.parse("12345678900"));
+        Assertions.assertThrows(ValidationRulingException.class, () -> Cpf.parse("123.456.78a-00"));
+        Assertions.assertThrows(ValidationRulingException.class, () -> Cpf.parse("123-456-789.00"));
+        Assertions.assertThrows(ValidationRulingException.class, () -> Cpf.parse(null));
+    }
+
+    @Test
+    void testLongHashSet_addAndContains() {
+        final var cpfs = new LongHashSet(4);
+        LongStream.range(0, 1000).forEach(i -> Assertions.assertTrue(cpfs.add(i * 104729L)));
+
+        Assertions.assertEquals(1000, cpfs.size());
+        Assertions.assertFalse(cpfs.add(0L));
+        Assertions.assertFalse(cpfs.add(999 * 104729L));
+        Assertions.assertTrue(cpfs.contains(500 * 104729L));
+        Assertions.assertFalse(cpfs.contains(1L));
+    }
+}
@@ -0,0 +1,93 @@
+package br.challenge.softdesign;
+
+import br.challenge.softdesign.application.controller.CreateRuling;
+import br.challenge.softdesign.application.controller.VoteOnRuling;
+import br.challenge.softdesign.domain.adapters.service.RulingService;
+import br.challenge.softdesign.domain.adapters.service.ValidationRulingException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDate;
+
+@SpringBootTest(properties = {
+        "ruling.cpf-validator.read-timeout=300ms",
+        "ruling.cpf-validator.resilience.degraded-policy=PROVISIONAL"
+})
+class CpfValidatorDegradedPolicyTests {
+
+    private static final CpfValidatorStub CPF_VALIDATOR = CpfValidatorStub.start();
+
+    @Autowired
+    private RulingService rulingService;
+
+    @Autowired
+    private CircuitBreaker cpfValidatorCircuitBreaker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void cpfValidatorUrl(DynamicPropertyRegistry registry) {
+        registry.add("ruling.cpf-validator.url", CPF_VALIDATOR::url);
+    }
+
+    @AfterAll
+    static void stopCpfValidator() {
+        CPF_VALIDATOR.stop();
+    }
+
+    @Test
+    void tallyVoteForRuling_unavailableValidatorAcceptsProvisionalVote() {
+        final var voteOnRuling = voteAnswered(CpfValidatorStub.SERVER_ERROR);
+
+        final var voteUuid = rulingService.tallyVoteForRuling(voteOnRuling);
+
+        Assertions.assertTrue(isProvisional(voteUuid.toString()));
+        Assertions.assertEquals(1, rulingService.resultOfRuling(voteOnRuling.rulingId()).totalVotes());
+    }
+
+    @Test
+    void tallyVoteForRuling_openCircuitAcceptsProvisionalVoteWithoutCallingTheValidator() {
+        cpfValidatorCircuitBreaker.transitionToForcedOpenState();
+        try {
+            final var voteOnRuling = voteAnswered("ABLE_TO_VOTE");
+
+            final var voteUuid = rulingService.tallyVoteForRuling(voteOnRuling);
+
+            Assertions.assertTrue(isProvisional(voteUuid.toString()));
+            Assertions.assertEquals(0, CPF_VALIDATOR.callsFor(voteOnRuling.cpf()));
+        } finally {
+            cpfValidatorCircuitBreaker.reset();
+        }
+    }
+
+    @Test
+    void tallyVoteForRuling_unableToVoteIsStillRejected() {
+        final var voteOnRuling = voteAnswered("UNABLE_TO_VOTE");
+
+        Assertions.assertThrows(ValidationRulingException.class, () -> rulingService.tallyVoteForRuling(voteOnRuling));
+    }
+
+    @Test
+    void tallyVoteForRuling_confirmedVoteIsNotProvisional() {
+        final var voteUuid = rulingService.tallyVoteForRuling(voteAnswered("ABLE_TO_VOTE"));
+
+        Assertions.assertFalse(isProvisional(voteUuid.toString()));
+    }
+
+    private boolean isProvisional(String voteUuid) {
+        return jdbcTemplate.queryForObject("select provisional from vote where uuid = ?", Boolean.class, voteUuid);
+    }
+
+    private VoteOnRuling voteAnswered(String status) {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title", "Description", LocalDate.now().plusDays(7)));
+        return new VoteOnRuling(rulingUuid, CPF_VALIDATOR.cpfAnswering(status), true);
+    }
+}
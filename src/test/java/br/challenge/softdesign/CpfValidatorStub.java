@@ -0,0 +1,102 @@
+package br.challenge.softdesign;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for the external CPF validator. Each CPF answers with the status registered for it,
+ * {@link #SLOW} sleeps past any sensible read timeout and {@link #SERVER_ERROR} answers 500.
+ */
+final class CpfValidatorStub {
+
+    static final String SLOW = "SLOW";
+    static final String SERVER_ERROR = "SERVER_ERROR";
+
+    private final Map<String, String> statusByCpf = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> callsByCpf = new ConcurrentHashMap<>();
+    private final Map<String, Duration> delayByCpf = new ConcurrentHashMap<>();
+    private volatile Consumer<String> callListener = cpf -> {
+    };
+    private final HttpServer server;
+
+    private CpfValidatorStub(HttpServer server) {
+        this.server = server;
+    }
+
+    static CpfValidatorStub start() {
+        try {
+            final var stub = new CpfValidatorStub(HttpServer.create(new InetSocketAddress("localhost", 0), 256));
+            stub.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            stub.server.createContext("/users/", exchange -> {
+                final var cpf = exchange.getRequestURI().getPath().substring("/users/".length());
+                final var status = stub.statusByCpf.getOrDefault(cpf, "ABLE_TO_VOTE");
+                stub.callsByCpf.computeIfAbsent(cpf, key -> new AtomicInteger()).incrementAndGet();
+                stub.callListener.accept(cpf);
+                if (SLOW.equals(status)) {
+                    sleep(Duration.ofSeconds(5));
+                } else if (stub.delayByCpf.containsKey(cpf)) {
+                    sleep(stub.delayByCpf.get(cpf));
+                }
+                final var body = ("{\"status\": \"" + status + "\"}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(SERVER_ERROR.equals(status) ? 500 : 200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            });
+            stub.server.start();
+            return stub;
+        } catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    String cpfAnswering(String status) {
+        final var random = new Random();
+        final var cpf = String.format("%03d.%03d.%03d-%02d", random.nextInt(1000), random.nextInt(1000), random.nextInt(1000), random.nextInt(100));
+        answer(cpf, status);
+        return cpf;
+    }
+
+    void answer(String cpf, String status) {
+        statusByCpf.put(cpf, status);
+    }
+
+    void delay(String cpf, Duration delay) {
+        delayByCpf.put(cpf, delay);
+    }
+
+    void onCall(Consumer<String> listener) {
+        callListener = listener;
+    }
+
+    int callsFor(String cpf) {
+        final var calls = callsByCpf.get(cpf);
+        return calls == null ? 0 : calls.get();
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package br.challenge.softdesign;
+
+import br.challenge.softdesign.application.controller.CreateRuling;
+import br.challenge.softdesign.application.controller.VoteOnRuling;
+import br.challenge.softdesign.domain.adapters.service.RulingService;
+import br.challenge.softdesign.domain.adapters.service.UnavailableRulingException;
+import br.challenge.softdesign.domain.adapters.service.ValidationRulingException;
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+@SpringBootTest(properties = {
+        "ruling.cpf-validator.read-timeout=300ms",
+        "ruling.cpf-validator.resilience.sliding-window-size=4",
+        "ruling.cpf-validator.resilience.minimum-number-of-calls=2",
+        "ruling.cpf-validator.resilience.wait-duration-in-open-state=1m"
+})
+class CpfValidatorTests {
+
+    private static final CpfValidatorStub CPF_VALIDATOR = CpfValidatorStub.start();
+
+    @Autowired
+    private RulingService rulingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CircuitBreaker cpfValidatorCircuitBreaker;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @DynamicPropertySource
+    static void cpfValidatorUrl(DynamicPropertyRegistry registry) {
+        registry.add("ruling.cpf-validator.url", CPF_VALIDATOR::url);
+    }
+
+    @AfterAll
+    static void stopCpfValidator() {
+        CPF_VALIDATOR.stop();
+    }
+
+    @BeforeEach
+    void closeCircuit() {
+        cpfValidatorCircuitBreaker.reset();
+    }
+
+    @Test
+    void tallyVoteForRuling_ableToVote() {
+        final var voteOnRuling = voteAnswered("ABLE_TO_VOTE");
+
+        Assertions.assertNotNull(rulingService.tallyVoteForRuling(voteOnRuling));
+    }
+
+    @Test
+    void tallyVoteForRuling_unableToVote() {
+        final var voteOnRuling = voteAnswered("UNABLE_TO_VOTE");
+
+        final var exception = Assertions.assertThrows(ValidationRulingException.class, () -> rulingService.tallyVoteForRuling(voteOnRuling));
+        Assertions.assertEquals("CPF is not able to vote.", exception.getMessage());
+    }
+
+    @Test
+    void tallyVoteForRuling_slowValidatorTimesOut() {
+        final var voteOnRuling = voteAnswered(CpfValidatorStub.SLOW);
+
+        final var start = System.nanoTime();
+        Assertions.assertThrows(UnavailableRulingException.class, () -> rulingService.tallyVoteForRuling(voteOnRuling));
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+    }
+
+    @Test
+    void tallyVoteForRuling_ableToVoteAnswerIsCached() {
+        final var voteOnRuling = voteAnswered("ABLE_TO_VOTE");
+        final var hits = cacheGets("hit");
+
+        rulingService.tallyVoteForRuling(voteOnRuling);
+        rulingService.tallyVoteForRuling(new VoteOnRuling(newRuling(), voteOnRuling.cpf(), false));
+
+        Assertions.assertEquals(1, CPF_VALIDATOR.callsFor(voteOnRuling.cpf()));
+        Assertions.assertEquals(hits + 1, cacheGets("hit"));
+    }
+
+    @Test
+    void tallyVoteForRuling_unableToVoteAnswerIsCached() {
+        final var voteOnRuling = voteAnswered("UNABLE_TO_VOTE");
+
+        Assertions.assertThrows(ValidationRulingException.class, () -> rulingService.tallyVoteForRuling(voteOnRuling));
+        Assertions.assertThrows(ValidationRulingException.class,
+                () -> rulingService.tallyVoteForRuling(new VoteOnRuling(newRuling(), voteOnRuling.cpf(), true)));
+
+        Assertions.assertEquals(1, CPF_VALIDATOR.callsFor(voteOnRuling.cpf()));
+    }
+
+    @Test
+    void tallyVoteForRuling_timeoutIsNotCached() {
+        final var voteOnRuling = voteAnswered(CpfValidatorStub.SLOW);
+
+        Assertions.assertThrows(UnavailableRulingException.class, () -> rulingService.tallyVoteForRuling(voteOnRuling));
+        CPF_VALIDATOR.answer(voteOnRuling.cpf(), "ABLE_TO_VOTE");
+
+        Assertions.assertNotNull(rulingService.tallyVoteForRuling(voteOnRuling));
+        Assertions.assertEquals(2, CPF_VALIDATOR.callsFor(voteOnRuling.cpf()));
+    }
+
+    @Test
+    void tallyVoteForRuling_openCircuitFailsFastWithoutCallingTheValidator() {
+        final var opened = circuitTransitions("CLOSED", "OPEN");
+        Assertions.assertThrows(UnavailableRulingException.class, () -> rulingService.tallyVoteForRuling(voteAnswered(CpfValidatorStub.SERVER_ERROR)));
+        Assertions.assertThrows(UnavailableRulingException.class, () -> rulingService.tallyVoteForRuling(voteAnswered(CpfValidatorStub.SERVER_ERROR)));
+
+        final var voteOnRuling = voteAnswered("ABLE_TO_VOTE");
+        Assertions.assertThrows(UnavailableRulingException.class, () -> rulingService.tallyVoteForRuling(voteOnRuling));
+
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, cpfValidatorCircuitBreaker.getState());
+        Assertions.assertEquals(0, CPF_VALIDATOR.callsFor(voteOnRuling.cpf()));
+        Assertions.assertEquals(opened + 1, circuitTransitions("CLOSED", "OPEN"));
+        Assertions.assertEquals(1, meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", "cpfValidator").tag("state", "open").gauge().value());
+    }
+
+    @Test
+    void tallyVoteForRuling_halfOpenCircuitClosesAfterSuccessfulProbes() {
+        cpfValidatorCircuitBreaker.transitionToOpenState();
+        cpfValidatorCircuitBreaker.transitionToHalfOpenState();
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertNotNull(rulingService.tallyVoteForRuling(voteAnswered("ABLE_TO_VOTE")));
+        }
+
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, cpfValidatorCircuitBreaker.getState());
+    }
+
+    @Test
+    void tallyVoteForRuling_concurrentLookupsForOneCpfShareOneCall() throws Exception {
+        final var cpf = CPF_VALIDATOR.cpfAnswering("ABLE_TO_VOTE");
+        CPF_VALIDATOR.delay(cpf, Duration.ofMillis(200));
+
+        final var outcomes = voteConcurrently(cpf);
+
+        for (var outcome : outcomes) {
+            Assertions.assertNotNull(outcome.get());
+        }
+        Assertions.assertEquals(1, CPF_VALIDATOR.callsFor(cpf));
+    }
+
+    @Test
+    void tallyVoteForRuling_concurrentLookupsForOneCpfShareOneFailure() throws Exception {
+        final var cpf = CPF_VALIDATOR.cpfAnswering(CpfValidatorStub.SERVER_ERROR);
+        CPF_VALIDATOR.delay(cpf, Duration.ofMillis(200));
+
+        final var outcomes = voteConcurrently(cpf);
+
+        for (var outcome : outcomes) {
+            final var exception = Assertions.assertThrows(ExecutionException.class, outcome::get);
+            Assertions.assertInstanceOf(UnavailableRulingException.class, exception.getCause());
+        }
+        Assertions.assertEquals(1, CPF_VALIDATOR.callsFor(cpf));
+    }
+
+    @Test
+    void tallyVoteForRuling_noConnectionIsBorrowedDuringEligibility() {
+        final var voteOnRuling = voteAnswered("ABLE_TO_VOTE");
+        final var activeConnections = new AtomicInteger(-1);
+        CPF_VALIDATOR.onCall(cpf -> {
+            if (cpf.equals(voteOnRuling.cpf())) {
+                activeConnections.set(dataSource.getHikariPoolMXBean().getActiveConnections());
+            }
+        });
+
+        try {
+            Assertions.assertNotNull(rulingService.tallyVoteForRuling(voteOnRuling));
+        } finally {
+            CPF_VALIDATOR.onCall(cpf -> {
+            });
+        }
+
+        Assertions.assertEquals(0, activeConnections.get());
+    }
+
+    @Test
+    void tallyVoteForRuling_recordsTimePerPhase() {
+        final var eligibility = votePhaseCount("eligibility");
+        final var duplicateCheck = votePhaseCount("duplicate_check");
+        final var write = votePhaseCount("write");
+
+        rulingService.tallyVoteForRuling(voteAnswered("ABLE_TO_VOTE"));
+
+        Assertions.assertEquals(eligibility + 1, votePhaseCount("eligibility"));
+        Assertions.assertEquals(duplicateCheck + 1, votePhaseCount("duplicate_check"));
+        Assertions.assertEquals(write + 1, votePhaseCount("write"));
+    }
+
+    private long votePhaseCount(String phase) {
+        return meterRegistry.get("ruling.vote.phase").tag("phase", phase).timer().count();
+    }
+
+    private List<Future<UUID>> voteConcurrently(String cpf) throws InterruptedException {
+        final var votes = IntStream.range(0, 20)
+                .mapToObj(i -> new VoteOnRuling(newRuling(), cpf, i % 2 == 0))
+                .toList();
+        final var start = new CountDownLatch(1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final var outcomes = votes.stream()
+                    .map(voteOnRuling -> executor.submit(() -> {
+                        start.await();
+                        return rulingService.tallyVoteForRuling(voteOnRuling);
+                    }))
+                    .toList();
+            start.countDown();
+            return outcomes;
+        }
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "cpf.eligibility").tag("result", result).functionCounter().count();
+    }
+
+    private double circuitTransitions(String from, String to) {
+        return meterRegistry.counter("cpf.validator.circuit.transitions", "from", from, "to", to).count();
+    }
+
+    private VoteOnRuling voteAnswered(String status) {
+        return new VoteOnRuling(newRuling(), CPF_VALIDATOR.cpfAnswering(status), true);
+    }
+
+    private UUID newRuling() {
+        return rulingService.createRuling(new CreateRuling("Title", "Description", LocalDate.now().plusDays(7)));
+    }
+}
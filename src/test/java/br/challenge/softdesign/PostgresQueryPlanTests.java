@@ -0,0 +1,79 @@
+package br.challenge.softdesign;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Checks the partial index on open rulings, which only exists on PostgreSQL; {@link QueryPlanTests} checks the
+ * fallback index used by H2. Needs a PostgreSQL database (see {@link PostgresTestDatabase}) and runs with
+ * {@code ./gradlew postgresTest}.
+ */
+@Tag("postgres")
+@EnabledIfEnvironmentVariable(named = PostgresTestDatabase.URL, matches = ".+")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PostgresQueryPlanTests {
+
+    private static final int RULINGS = 20_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Object[]> seededRulings = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @BeforeAll
+    void seed() {
+        final var rulings = new ArrayList<Object[]>();
+        for (int i = 0; i < RULINGS; i++) {
+            final var uuid = UUID.randomUUID();
+            // closed rulings from previous sessions, with a few still open
+            final var available = i % 100 == 0;
+            rulings.add(new Object[]{uuid, "Title " + i, "Description " + i, LocalDate.now().minusDays(RULINGS - i),
+                    available ? LocalDate.now().plusDays(7) : LocalDate.now().minusDays(RULINGS - i - 1), available});
+            seededRulings.add(new Object[]{uuid});
+        }
+        jdbcTemplate.batchUpdate("insert into ruling (uuid, title, description, start_date, end_date, votes_in_favor, votes_against, available) " +
+                "values (?, ?, ?, ?, ?, 0, 0, ?)", rulings);
+        jdbcTemplate.execute("analyze ruling");
+    }
+
+    @AfterAll
+    void clean() {
+        jdbcTemplate.batchUpdate("delete from ruling where uuid = ?", seededRulings);
+    }
+
+    @Test
+    void listingOfOpenRulingsUsesThePartialIndex() {
+        assertPlanUses("ix_ruling_available", "select uuid, title, description, end_date from ruling where available = true");
+    }
+
+    @Test
+    void expirySweepUsesTheEndDateIndex() {
+        assertPlanUses("ix_ruling_end_date", "select uuid from ruling where end_date < current_date - 10000");
+    }
+
+    private void assertPlanUses(String index, String query) {
+        final var plan = String.join("\n", jdbcTemplate.queryForList("explain " + query, String.class));
+        Assertions.assertTrue(plan.contains(index), () -> plan);
+    }
+}
@@ -0,0 +1,25 @@
+package br.challenge.softdesign;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+/**
+ * Points a test context at the PostgreSQL database in {@code POSTGRES_URL}, with {@code POSTGRES_USERNAME} and
+ * {@code POSTGRES_PASSWORD} (by default the credentials of {@code compose.yaml}). Tests that need it are tagged
+ * {@code postgres} and skipped when the variable is not set.
+ */
+final class PostgresTestDatabase {
+
+    static final String URL = "POSTGRES_URL";
+
+    private PostgresTestDatabase() {
+    }
+
+    static void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv(URL));
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("POSTGRES_USERNAME", "testuser"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("POSTGRES_PASSWORD", "testpassword"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+}
@@ -0,0 +1,82 @@
+package br.challenge.softdesign;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTests {
+
+    private static final int RULINGS = 2000;
+    private static final int VOTES_PER_RULING = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Object[]> seededRulings = new ArrayList<>();
+    private UUID openRuling;
+
+    @BeforeAll
+    void seed() {
+        final var rulings = new ArrayList<Object[]>();
+        final var votes = new ArrayList<Object[]>();
+        for (int i = 0; i < RULINGS; i++) {
+            final var uuid = UUID.randomUUID();
+            // closed rulings from previous sessions, with a few still open
+            final var available = i % 100 == 0;
+            rulings.add(new Object[]{uuid, "Title " + i, "Description " + i, LocalDate.now().minusDays(RULINGS - i),
+                    available ? LocalDate.now().plusDays(7) : LocalDate.now().minusDays(RULINGS - i - 1), available});
+            for (int v = 0; v < VOTES_PER_RULING; v++) {
+                votes.add(new Object[]{UUID.randomUUID(), uuid, 10_000_000_000L + i * VOTES_PER_RULING + v, v % 2 == 0});
+            }
+            if (available) {
+                openRuling = uuid;
+            }
+            seededRulings.add(new Object[]{uuid});
+        }
+        jdbcTemplate.batchUpdate("insert into ruling (uuid, title, description, start_date, end_date, votes_in_favor, votes_against, available) " +
+                "values (?, ?, ?, ?, ?, 0, 0, ?)", rulings);
+        jdbcTemplate.batchUpdate("insert into vote (uuid, ruling_id, cpf, vote_in_favor) values (?, ?, ?, ?)", votes);
+        jdbcTemplate.execute("analyze");
+    }
+
+    // the context is shared with the other tests, which must not see the seeded rulings
+    @AfterAll
+    void clean() {
+        jdbcTemplate.batchUpdate("delete from ruling_result where ruling_id = ?", seededRulings);
+        jdbcTemplate.batchUpdate("delete from vote where ruling_id = ?", seededRulings);
+        jdbcTemplate.batchUpdate("delete from ruling where uuid = ?", seededRulings);
+    }
+
+    // H2 has no partial indexes, this checks the (available, uuid) fallback; PostgresQueryPlanTests checks the partial index
+    @Test
+    void listingOfOpenRulingsUsesTheAvailableIndex() {
+        assertPlanUses("IX_RULING_AVAILABLE", "select uuid, title, description, end_date from ruling where available = true");
+    }
+
+    @Test
+    void expirySweepUsesTheEndDateIndex() {
+        assertPlanUses("IX_RULING_END_DATE", "select uuid from ruling where end_date < current_date - 1000");
+    }
+
+    @Test
+    void duplicateVoteLookupUsesTheRulingCpfIndex() {
+        assertPlanUses("UK_VOTE_RULING_CPF", "select 1 from vote where ruling_id = '" + openRuling + "' and cpf = 10000000000");
+    }
+
+    private void assertPlanUses(String index, String query) {
+        final var plan = jdbcTemplate.queryForObject("explain " + query, String.class);
+        Assertions.assertTrue(plan.toUpperCase().contains(index), () -> plan);
+    }
+}
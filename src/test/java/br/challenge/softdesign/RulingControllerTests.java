@@ -2,8 +2,16 @@ package br.challenge.softdesign;
 
 import br.challenge.softdesign.application.controller.CreateRuling;
 import br.challenge.softdesign.application.controller.VoteOnRuling;
+import br.challenge.softdesign.application.controller.RulingStatus;
+import br.challenge.softdesign.domain.adapters.repository.VoteRepository;
+import br.challenge.softdesign.domain.adapters.service.RulingResultBroadcaster;
+import br.challenge.softdesign.domain.adapters.service.RulingService;
+import br.challenge.softdesign.domain.adapters.service.VoteArchiver;
+import br.challenge.softdesign.infrastracture.Vote;
+import br.challenge.softdesign.infrastracture.VoteTally;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.hamcrest.text.MatchesPattern;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -14,8 +22,10 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -26,13 +36,26 @@ class RulingControllerTests {
 
     private final MockMvc mockMvc;
     private final ObjectMapper objectMapper;
+    private final RulingResultBroadcaster rulingResultBroadcaster;
+    private final RulingService rulingService;
+    private final VoteRepository voteRepository;
+    private final VoteArchiver voteArchiver;
 
     private static final String REGEX_PATTERN = "[a-f0-9]{8}-([a-f0-9]{4}-){3}[a-f0-9]{12}";
 
     @Autowired
-    public RulingControllerTests(MockMvc mockMvc, ObjectMapper objectMapper) {
+    public RulingControllerTests(MockMvc mockMvc,
+                                 ObjectMapper objectMapper,
+                                 RulingResultBroadcaster rulingResultBroadcaster,
+                                 RulingService rulingService,
+                                 VoteRepository voteRepository,
+                                 VoteArchiver voteArchiver) {
         this.mockMvc = mockMvc;
         this.objectMapper = objectMapper;
+        this.rulingResultBroadcaster = rulingResultBroadcaster;
+        this.rulingService = rulingService;
+        this.voteRepository = voteRepository;
+        this.voteArchiver = voteArchiver;
     }
 
     @Test
@@ -71,6 +94,27 @@ class RulingControllerTests {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void listingRuling_pageWithNextCursor() throws Exception {
+        buildResultActionsForRuling();
+        buildResultActionsForRuling();
+
+        this.mockMvc.perform(get("/ruling?status=OPEN&limit=1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-API-Version", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string("X-Next-Cursor", MatchesPattern.matchesPattern("[0-9a-f-]{36}")));
+    }
+
+    @Test
+    void listingRuling_withinInvalidLimit() throws Exception {
+        this.mockMvc.perform(get("/ruling?status=OPEN&limit=0")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-API-Version", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void createRuling() throws Exception {
         buildResultActionsForRuling()
@@ -178,6 +222,34 @@ class RulingControllerTests {
                 .andExpect(jsonPath("$").value(MatchesPattern.matchesPattern(REGEX_PATTERN)));
     }
 
+    @Test
+    void voteOnRulingBatch_perVoteOutcome() throws Exception {
+        final var createdRuling = buildResultActionsForRuling()
+                .andExpect(status().isOk())
+                .andReturn();
+        final var rulingId = normalizeUUID(createdRuling.getResponse().getContentAsString());
+
+        final var votes = List.of(
+                new VoteOnRuling(rulingId, "321.654.987-01", true),
+                new VoteOnRuling(rulingId, "321.654.987-02", false),
+                new VoteOnRuling(rulingId, "321.654.987-01", false),
+                new VoteOnRuling(rulingId, "321.654.987", true));
+        this.mockMvc.perform(post("/ruling/vote/batch")
+                        .header("X-API-Version", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(votes)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].status").value("ACCEPTED"))
+                .andExpect(jsonPath("$[0].vote_id").value(MatchesPattern.matchesPattern(REGEX_PATTERN)))
+                .andExpect(jsonPath("$[1].status").value("ACCEPTED"))
+                .andExpect(jsonPath("$[2].status").value("REJECTED"))
+                .andExpect(jsonPath("$[2].reason").value("The vote has already been registered."))
+                .andExpect(jsonPath("$[3].status").value("REJECTED"))
+                .andExpect(jsonPath("$[3].reason").value("CPF must be in the format XXX.XXX.XXX-XX"));
+    }
+
     @Test
     void resultOfRuling_withinInvalidUuid() throws Exception {
         this.mockMvc.perform(get("/ruling/3fa85f64-5717-4562-b3fc-/result")
@@ -217,6 +289,93 @@ class RulingControllerTests {
                 .andExpect(jsonPath("$.ruling_id").value(rulingId.toString()));
     }
 
+    @Test
+    void resultOfRuling_notModifiedUntilVoted() throws Exception {
+        final var rulingUuid = createdRuling();
+        final var etag = this.mockMvc.perform(get("/ruling/" + rulingUuid + "/result")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-API-Version", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        this.mockMvc.perform(get("/ruling/" + rulingUuid + "/result")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-API-Version", "1")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        voteOn(rulingUuid, "111.222.333-44", true);
+
+        this.mockMvc.perform(get("/ruling/" + rulingUuid + "/result")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-API-Version", "1")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.votes_for").value(1));
+    }
+
+    @Test
+    void resultOfRuling_closedRulingIsCacheable() throws Exception {
+        final var rulingUuid = createdRuling();
+        voteOn(rulingUuid, "111.222.333-44", true);
+        closeRuling(rulingUuid);
+
+        this.mockMvc.perform(get("/ruling/" + rulingUuid + "/result")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-API-Version", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=3600, public"))
+                .andExpect(header().string("ETag", "\"1-0-final\""))
+                .andExpect(jsonPath("$.result").value("Approved"));
+    }
+
+    @Test
+    void resultStream_pushesCountedVotes() throws Exception {
+        final var rulingUuid = createdRuling();
+        final var stream = this.mockMvc.perform(get("/ruling/" + rulingUuid + "/result/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-API-Version", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        Assertions.assertTrue(awaitEvents(stream, "id:0-0\nevent:result\n").contains("id:0-0\nevent:result\n"));
+        Assertions.assertEquals(1, rulingResultBroadcaster.subscribersOf(rulingUuid));
+
+        voteOn(rulingUuid, "111.222.333-44", true);
+        voteOn(rulingUuid, "555.666.777-88", true);
+        rulingResultBroadcaster.broadcast();
+
+        final var events = awaitEvents(stream, "id:2-0\nevent:result\n");
+        Assertions.assertTrue(events.contains("id:2-0\nevent:result\n"));
+        Assertions.assertTrue(events.contains("\"votes_for\":2"));
+    }
+
+    @Test
+    void resultStream_reconnectWithCurrentVersionWaitsForNextChange() throws Exception {
+        final var rulingUuid = createdRuling();
+        voteOn(rulingUuid, "111.222.333-44", false);
+        final var stream = this.mockMvc.perform(get("/ruling/" + rulingUuid + "/result/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-API-Version", "1")
+                        .header("Last-Event-ID", "0-1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        Assertions.assertEquals("", stream.getResponse().getContentAsString());
+
+        closeRuling(rulingUuid);
+        rulingResultBroadcaster.broadcast();
+
+        Assertions.assertTrue(awaitEvents(stream, "id:0-1-final\nevent:result\n").contains("id:0-1-final\nevent:result\n"));
+    }
+
+    @Test
+    void resultStream_rulingNotFound() throws Exception {
+        this.mockMvc.perform(get("/ruling/" + UUID.randomUUID() + "/result/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-API-Version", "1"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void openRuling_withinInvalidUuid() throws Exception {
         this.mockMvc.perform(post("/ruling/3fa85f64-5717-4562-b3fc-/open")
@@ -294,6 +453,124 @@ class RulingControllerTests {
         return UUID.fromString(uuid.replace("\"", ""));
     }
 
+    @Test
+    void exportVotes_closedRulingAsNdjson() throws Exception {
+        final var rulingUuid = createdRuling();
+        final var voteUuid = voteOn(rulingUuid, "111.222.333-44", true);
+        voteOn(rulingUuid, "555.666.777-88", false);
+        closeRuling(rulingUuid);
+
+        final var lines = exportedLines(rulingUuid, "NDJSON", "application/x-ndjson");
+
+        Assertions.assertEquals(2, lines.size());
+        Assertions.assertTrue(lines.contains("{\"vote_id\":\"" + voteUuid + "\",\"cpf\":\"111.222.333-44\",\"vote_in_favor\":true,\"provisional\":false}"));
+    }
+
+    @Test
+    void exportVotes_closedRulingAsCsv() throws Exception {
+        final var rulingUuid = createdRuling();
+        final var voteUuid = voteOn(rulingUuid, "555.666.777-88", false);
+        closeRuling(rulingUuid);
+
+        final var lines = exportedLines(rulingUuid, "CSV", "text/csv");
+
+        Assertions.assertEquals(List.of("vote_id,cpf,vote_in_favor,provisional", voteUuid + ",555.666.777-88,false,false"), lines);
+    }
+
+    @Test
+    void exportVotes_archivedRuling() throws Exception {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling(null, "Title 1", "Description 1", LocalDate.now().minusDays(60), RulingStatus.CLOSE, null));
+        final var inFavor = archivableVote(rulingUuid, 11122233344L, true, false);
+        final var against = archivableVote(rulingUuid, 55566677788L, false, true);
+        final var lastChunk = archivableVote(rulingUuid, 99988877766L, true, false);
+        voteRepository.saveAll(List.of(inFavor, against, lastChunk));
+
+        // the test chunk size is 2, so the votes are archived in two chunks
+        Assertions.assertEquals(3, voteArchiver.archive(rulingUuid));
+        Assertions.assertEquals(0, voteArchiver.archive(rulingUuid));
+
+        final var lines = exportedLines(rulingUuid, "CSV", "text/csv");
+        Assertions.assertEquals(4, lines.size());
+        Assertions.assertTrue(lines.contains(inFavor.getUuid() + ",111.222.333-44,true,false"));
+        Assertions.assertTrue(lines.contains(against.getUuid() + ",555.666.777-88,false,true"));
+        Assertions.assertTrue(lines.contains(lastChunk.getUuid() + ",999.888.777-66,true,false"));
+        Assertions.assertEquals(new VoteTally(2, 1), voteRepository.countVotes(rulingUuid));
+        this.mockMvc.perform(get("/ruling/" + rulingUuid + "/result")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-API-Version", "1"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void exportVotes_withinOpenRuling() throws Exception {
+        this.mockMvc.perform(get("/ruling/" + createdRuling() + "/votes/export")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-API-Version", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportVotes_rulingNotFound() throws Exception {
+        this.mockMvc.perform(get("/ruling/" + UUID.randomUUID() + "/votes/export")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-API-Version", "1"))
+                .andExpect(status().isNotFound());
+    }
+
+    private UUID createdRuling() throws Exception {
+        final var response = buildResultActionsForRuling().andReturn().getResponse().getContentAsString();
+        return UUID.fromString(objectMapper.readValue(response, String.class));
+    }
+
+    private String voteOn(UUID rulingUuid, String cpf, boolean voteInFavor) throws Exception {
+        final var response = this.mockMvc.perform(post("/ruling/vote")
+                        .header("X-API-Version", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(new VoteOnRuling(rulingUuid, cpf, voteInFavor))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, String.class);
+    }
+
+    private Vote archivableVote(UUID rulingUuid, long cpf, boolean voteInFavor, boolean provisional) {
+        final var vote = new Vote();
+        vote.setUuid(UUID.randomUUID());
+        vote.setRulingId(rulingUuid);
+        vote.setCpf(cpf);
+        vote.setVoteInFavor(voteInFavor);
+        vote.setProvisional(provisional);
+        return vote;
+    }
+
+    private void closeRuling(UUID rulingUuid) throws Exception {
+        this.mockMvc.perform(get("/ruling/" + rulingUuid + "/close")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-API-Version", "1"))
+                .andExpect(status().isOk());
+    }
+
+    // events are written by the broadcaster's sender threads
+    private String awaitEvents(MvcResult stream, String expected) throws Exception {
+        final var deadline = System.currentTimeMillis() + 5_000;
+        while (!stream.getResponse().getContentAsString().contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        return stream.getResponse().getContentAsString();
+    }
+
+    private List<String> exportedLines(UUID rulingUuid, String format, String contentType) throws Exception {
+        final var export = this.mockMvc.perform(get("/ruling/" + rulingUuid + "/votes/export?format=" + format)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-API-Version", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        final var content = this.mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(contentType))
+                .andReturn().getResponse().getContentAsString();
+        return content.lines().toList();
+    }
+
     private ResultActions buildResultActionsForRuling() throws Exception {
         final var ruling1 = new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7));
         return this.mockMvc.perform(post("/ruling")
@@ -2,20 +2,41 @@ package br.challenge.softdesign;
 
 import br.challenge.softdesign.application.controller.CreateRuling;
 import br.challenge.softdesign.application.controller.ResultRuling;
+import br.challenge.softdesign.application.controller.RulingStatus;
 import br.challenge.softdesign.application.controller.VoteOnRuling;
+import br.challenge.softdesign.application.controller.VoteOutcome;
+import br.challenge.softdesign.application.controller.VoteStatus;
+import br.challenge.softdesign.domain.adapters.repository.RulingRepository;
+import br.challenge.softdesign.domain.adapters.repository.VoteRepository;
 import br.challenge.softdesign.domain.adapters.service.NotFoundRulingException;
+import br.challenge.softdesign.domain.adapters.service.OpenRulingRegistry;
+import br.challenge.softdesign.domain.adapters.service.RulingResultCache;
 import br.challenge.softdesign.domain.adapters.service.RulingService;
 import br.challenge.softdesign.domain.adapters.service.ValidationRulingException;
+import br.challenge.softdesign.domain.adapters.service.VoteTallyAggregator;
+import br.challenge.softdesign.infrastracture.VoteTally;
+import br.challenge.softdesign.infrastracture.configuration.WriteBehindTallyProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.util.Assert;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 @SpringBootTest
 class RulingServiceTests {
@@ -23,6 +44,21 @@ class RulingServiceTests {
     @Autowired
     private RulingService rulingService;
 
+    @Autowired
+    private RulingRepository rulingRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OpenRulingRegistry openRulingRegistry;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private RulingResultCache rulingResultCache;
+
 
     @Test
     void testCreateRuling() throws Exception {
@@ -53,6 +89,39 @@ class RulingServiceTests {
         Assert.isTrue(listOfRuling.size() == 1, "List of ruling has one element");
     }
 
+    @Test
+    void testPageOfRulings_continuesAfterCursor() {
+        final var first = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        final var second = rulingService.createRuling(new CreateRuling("Title 2", "Description 2", LocalDate.now().plusDays(7)));
+        final var third = rulingService.createRuling(new CreateRuling("Title 3", "Description 3", LocalDate.now().plusDays(7)));
+
+        final var page = rulingService.pageOfRulings(true, first, 1);
+        Assertions.assertEquals(List.of(second), page.rulings().stream().map(CreateRuling::uuid).toList());
+        Assertions.assertEquals(Optional.of(second), page.nextCursor());
+
+        final var nextPage = rulingService.pageOfRulings(true, page.nextCursor().orElseThrow(), 1);
+        Assertions.assertEquals(third, nextPage.rulings().get(0).uuid());
+        Assertions.assertEquals("Title 3", nextPage.rulings().get(0).title());
+    }
+
+    @Test
+    void testPageOfRulings_visitsEveryRulingOnce() {
+        final var ruling = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        final var visited = new ArrayList<UUID>();
+
+        var page = rulingService.pageOfRulings(true, null, 7);
+        visited.addAll(page.rulings().stream().map(CreateRuling::uuid).toList());
+        while (page.nextCursor().isPresent()) {
+            Assertions.assertEquals(7, page.rulings().size());
+            page = rulingService.pageOfRulings(true, page.nextCursor().get(), 7);
+            visited.addAll(page.rulings().stream().map(CreateRuling::uuid).toList());
+        }
+
+        Assertions.assertTrue(visited.contains(ruling));
+        Assertions.assertEquals(visited.size(), new HashSet<>(visited).size());
+        Assertions.assertEquals(rulingService.listOfRuling(null, true).size(), visited.size());
+    }
+
     @Test
     void testResultOfRuling_notPersisted() {
         Assertions.assertThrows(NotFoundRulingException.class, () -> rulingService.resultOfRuling(UUID.randomUUID()));
@@ -155,6 +224,35 @@ class RulingServiceTests {
         Assertions.assertThrows(ValidationRulingException.class, () -> rulingService.tallyVoteForRuling(voteOnRuling2), () -> "The vote has already been registered.");
     }
 
+    @Test
+    void testVote_concurrentDuplicateCpfIsRegisteredOnce() throws Exception {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        final var cpf = randomCpf();
+
+        var accepted = 0;
+        var rejected = 0;
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            final var tasks = IntStream.range(0, 8)
+                    .mapToObj(i -> (Callable<UUID>) () -> rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, cpf, i % 2 == 0)))
+                    .toList();
+            for (var future : executor.invokeAll(tasks)) {
+                try {
+                    future.get();
+                    accepted++;
+                } catch (ExecutionException exception) {
+                    Assertions.assertInstanceOf(ValidationRulingException.class, exception.getCause());
+                    rejected++;
+                }
+            }
+        }
+
+        Assertions.assertEquals(1, accepted);
+        Assertions.assertEquals(7, rejected);
+        Assertions.assertEquals(1, rulingService.resultOfRuling(rulingUuid).totalVotes());
+        final var votes = voteRepository.countVotes(rulingUuid);
+        Assertions.assertEquals(1, votes.votesInFavor() + votes.votesAgainst());
+    }
+
     @Test
     void testVote_withinEndDateExpired() {
         final var ruling = new CreateRuling("Title 1", "Description 1", LocalDate.now().minusDays(7));
@@ -164,6 +262,350 @@ class RulingServiceTests {
         Assertions.assertThrows(ValidationRulingException.class, () -> rulingService.tallyVoteForRuling(voteOnRuling), () -> "The end date of the ruling has already expired. It is not possible to vote.");
     }
 
+    @Test
+    void testVote_concurrentVotesAreCountedExactly() throws Exception {
+        final var ruling = new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7));
+        final var rulingUuid = rulingService.createRuling(ruling);
+
+        final var votes = 40;
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            final var tasks = IntStream.range(0, votes)
+                    .mapToObj(i -> (Callable<UUID>) () -> rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, randomCpf(), i % 2 == 0)))
+                    .toList();
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        }
+
+        final var resultRuling = rulingService.resultOfRuling(rulingUuid);
+        Assertions.assertEquals(votes, resultRuling.totalVotes());
+        Assertions.assertEquals(votes / 2, resultRuling.votesFor());
+    }
+
+    @Test
+    void testResultOfRuling_shardedCounters() {
+        final var ruling = new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7), 4);
+        final var rulingUuid = rulingService.createRuling(ruling);
+
+        for (int i = 0; i < 10; i++) {
+            rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, randomCpf(), i < 7));
+        }
+        rulingService.closeRuling(rulingUuid);
+
+        final var resultRuling = rulingService.resultOfRuling(rulingUuid);
+        Assertions.assertEquals(10, resultRuling.totalVotes());
+        Assertions.assertEquals(7, resultRuling.votesFor());
+        Assertions.assertEquals(3, resultRuling.votesAgainst());
+        Assertions.assertEquals("Approved", resultRuling.result());
+    }
+
+    @Test
+    void testVote_shardedCountersRejectExpiredRuling() {
+        final var ruling = new CreateRuling("Title 1", "Description 1", LocalDate.now().minusDays(1), 4);
+        final var rulingUuid = rulingService.createRuling(ruling);
+
+        final var voteOnRuling = new VoteOnRuling(rulingUuid, randomCpf(), true);
+        Assertions.assertThrows(ValidationRulingException.class, () -> rulingService.tallyVoteForRuling(voteOnRuling));
+    }
+
+    @Test
+    void testTallyVotes_perVoteOutcome() {
+        final var openRuling = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        final var expiredRuling = rulingService.createRuling(new CreateRuling("Title 2", "Description 2", LocalDate.now().minusDays(1)));
+
+        final var cpf = randomCpf();
+        final var outcomes = rulingService.tallyVotes(List.of(
+                new VoteOnRuling(openRuling, cpf, true),
+                new VoteOnRuling(openRuling, randomCpf(), false),
+                new VoteOnRuling(openRuling, cpf, false),
+                new VoteOnRuling(expiredRuling, cpf, true)));
+
+        Assertions.assertEquals(VoteStatus.ACCEPTED, outcomes.get(0).status());
+        Assertions.assertEquals(VoteStatus.ACCEPTED, outcomes.get(1).status());
+        Assertions.assertEquals(VoteStatus.REJECTED, outcomes.get(2).status());
+        Assertions.assertEquals(VoteStatus.REJECTED, outcomes.get(3).status());
+
+        final var resultRuling = rulingService.resultOfRuling(openRuling);
+        Assertions.assertEquals(1, resultRuling.votesFor());
+        Assertions.assertEquals(1, resultRuling.votesAgainst());
+    }
+
+    @Test
+    void testTallyVotes_voteWithoutCpfIsRejectedAlone() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+
+        final var outcomes = rulingService.tallyVotes(List.of(
+                new VoteOnRuling(rulingUuid, null, true),
+                new VoteOnRuling(rulingUuid, randomCpf(), true)));
+
+        Assertions.assertEquals(VoteStatus.REJECTED, outcomes.get(0).status());
+        Assertions.assertEquals(VoteStatus.ACCEPTED, outcomes.get(1).status());
+        Assertions.assertEquals(1, rulingService.resultOfRuling(rulingUuid).totalVotes());
+    }
+
+    @Test
+    void testTallyVotes_emptyVoteIsRejectedAlone() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+
+        final var outcomes = rulingService.tallyVotes(Arrays.asList(
+                null,
+                new VoteOnRuling(null, randomCpf(), true),
+                new VoteOnRuling(rulingUuid, randomCpf(), true)));
+
+        Assertions.assertEquals(VoteOutcome.rejected("The vote can not be empty."), outcomes.get(0));
+        Assertions.assertEquals(VoteStatus.REJECTED, outcomes.get(1).status());
+        Assertions.assertEquals(VoteStatus.ACCEPTED, outcomes.get(2).status());
+        Assertions.assertEquals(1, rulingService.resultOfRuling(rulingUuid).totalVotes());
+    }
+
+    @Test
+    void testTallyVotes_alreadyRegisteredVote() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        final var cpf = randomCpf();
+        rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, cpf, true));
+
+        final var outcomes = rulingService.tallyVotes(List.of(new VoteOnRuling(rulingUuid, cpf, false)));
+
+        Assertions.assertEquals(VoteStatus.REJECTED, outcomes.get(0).status());
+        Assertions.assertEquals(1, rulingService.resultOfRuling(rulingUuid).totalVotes());
+    }
+
+    @Test
+    void testResultOfRuling_writeBehindTally() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        final var tallyAggregator = new VoteTallyAggregator(rulingRepository, new WriteBehindTallyProperties(true, Duration.ofMinutes(1)));
+
+        tallyAggregator.recordAfterCommit(rulingUuid, 2, 1);
+        Assertions.assertEquals(0, rulingRepository.findById(rulingUuid).orElseThrow().getVotesInFavor());
+        Assertions.assertEquals(new VoteTally(2, 1), tallyAggregator.pendingOf(rulingUuid));
+
+        tallyAggregator.drain();
+        final var ruling = rulingRepository.findById(rulingUuid).orElseThrow();
+        Assertions.assertEquals(2, ruling.getVotesInFavor());
+        Assertions.assertEquals(1, ruling.getVotesAgainst());
+        Assertions.assertEquals(VoteTally.EMPTY, tallyAggregator.pendingOf(rulingUuid));
+    }
+
+    @Test
+    void testVote_firstVoteSkipsDuplicateLookup() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        final var definitelyNew = bloomFilterCount("definitely_new");
+        final var maybeVoted = bloomFilterCount("maybe_voted");
+        final var cpf = randomCpf();
+
+        rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, cpf, true));
+        Assertions.assertEquals(definitelyNew + 1, bloomFilterCount("definitely_new"));
+
+        Assertions.assertThrows(ValidationRulingException.class, () -> rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, cpf, false)));
+        Assertions.assertEquals(maybeVoted + 1, bloomFilterCount("maybe_voted"));
+    }
+
+    @Test
+    void testVote_reopenedRulingLoadsVotersFromDatabase() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        final var cpf = randomCpf();
+        rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, cpf, true));
+        rulingService.closeRuling(rulingUuid);
+        rulingService.openRuling(rulingUuid);
+        final var maybeVoted = bloomFilterCount("maybe_voted");
+
+        Assertions.assertThrows(ValidationRulingException.class, () -> rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, cpf, false)));
+        Assertions.assertEquals(maybeVoted + 1, bloomFilterCount("maybe_voted"));
+        Assertions.assertEquals(1, rulingService.resultOfRuling(rulingUuid).totalVotes());
+    }
+
+    @Test
+    void testResultOfRuling_cachedUntilVotedOrClosed() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        final var resultRuling = rulingService.resultOfRuling(rulingUuid);
+        Assertions.assertSame(resultRuling, rulingService.resultOfRuling(rulingUuid));
+
+        rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, randomCpf(), true));
+        Assertions.assertEquals(1, rulingService.resultOfRuling(rulingUuid).votesFor());
+
+        rulingService.closeRuling(rulingUuid);
+        final var closedResult = rulingService.resultOfRuling(rulingUuid);
+        Assertions.assertEquals("Approved", closedResult.result());
+        Assertions.assertSame(closedResult, rulingService.resultOfRuling(rulingUuid));
+    }
+
+    @Test
+    void testResultOfRuling_invalidatedWhileLoadingIsNotCached() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        final var resultRuling = rulingService.resultOfRuling(rulingUuid);
+        rulingResultCache.invalidate(rulingUuid);
+        final var loads = new AtomicInteger();
+
+        rulingResultCache.get(rulingUuid, uuid -> {
+            loads.incrementAndGet();
+            rulingResultCache.invalidate(uuid);
+            return resultRuling;
+        });
+        rulingResultCache.get(rulingUuid, uuid -> {
+            loads.incrementAndGet();
+            return resultRuling;
+        });
+        rulingResultCache.get(rulingUuid, uuid -> {
+            loads.incrementAndGet();
+            return resultRuling;
+        });
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testCloseRuling_resultIsRecountedFromTheVotes() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, randomCpf(), true));
+        rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, randomCpf(), false));
+        rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, randomCpf(), false));
+        rulingRepository.applyVotes(rulingUuid, 5, 0);
+        final var drift = meterRegistry.summary("ruling.result.drift").totalAmount();
+
+        rulingService.closeRuling(rulingUuid);
+
+        Assertions.assertEquals(drift + 5, meterRegistry.summary("ruling.result.drift").totalAmount());
+        Assertions.assertEquals(Optional.of(new VoteTally(1, 2)), rulingRepository.findResult(rulingUuid));
+        final var resultRuling = rulingService.resultOfRuling(rulingUuid);
+        Assertions.assertEquals(1, resultRuling.votesFor());
+        Assertions.assertEquals(2, resultRuling.votesAgainst());
+        Assertions.assertEquals("Rejected", resultRuling.result());
+
+        rulingService.openRuling(rulingUuid);
+        Assertions.assertEquals(Optional.empty(), rulingRepository.findResult(rulingUuid));
+        Assertions.assertEquals(ResultRuling.STILL_COUNTING_VOTES, rulingService.resultOfRuling(rulingUuid).result());
+    }
+
+    @Test
+    void testCloseRuling_snapshotCountsVotesCommittedWhileClosing() throws Exception {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7), 4));
+
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            final var votes = IntStream.range(0, 200)
+                    .mapToObj(i -> executor.submit(() -> rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, randomCpf(), i % 3 == 0))))
+                    .toList();
+            votes.get(20).get();
+            rulingService.closeRuling(rulingUuid);
+
+            for (var vote : votes) {
+                try {
+                    vote.get();
+                } catch (ExecutionException exception) {
+                    Assertions.assertInstanceOf(ValidationRulingException.class, exception.getCause());
+                }
+            }
+        }
+
+        Assertions.assertEquals(Optional.of(voteRepository.countVotes(rulingUuid)), rulingRepository.findResult(rulingUuid));
+    }
+
+    @Test
+    void testResultOfRuling_rulingClosedWithoutSnapshotIsRecounted() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, randomCpf(), true));
+        rulingRepository.updateAvailable(rulingUuid, false);
+        Assertions.assertEquals(Optional.empty(), rulingRepository.findResult(rulingUuid));
+
+        Assertions.assertEquals("Approved", rulingService.resultOfRuling(rulingUuid).result());
+        Assertions.assertEquals(Optional.of(new VoteTally(1, 0)), rulingRepository.findResult(rulingUuid));
+    }
+
+    @Test
+    void testVote_rulingOpenedElsewhereIsAcceptedBeforeRefresh() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling(null, "Title 1", "Description 1", LocalDate.now().plusDays(7), RulingStatus.CLOSE, null));
+        rulingRepository.updateAvailable(rulingUuid, true);
+
+        Assertions.assertNotNull(rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, randomCpf(), true)));
+        Assertions.assertTrue(openRulingRegistry.isOpen(rulingUuid));
+    }
+
+    @Test
+    void testResultOfRuling_reopenedElsewhereDropsTheClosedResult() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        rulingService.closeRuling(rulingUuid);
+        Assertions.assertTrue(rulingService.resultOfRuling(rulingUuid).isFinal());
+
+        rulingRepository.updateAvailable(rulingUuid, true);
+        openRulingRegistry.refresh();
+
+        Assertions.assertFalse(rulingService.resultOfRuling(rulingUuid).isFinal());
+    }
+
+    @Test
+    void testVote_rulingOpenedElsewhereGetsItsVoterFilter() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling(null, "Title 1", "Description 1", LocalDate.now().plusDays(7), RulingStatus.CLOSE, null));
+        rulingRepository.updateAvailable(rulingUuid, true);
+        final var definitelyNew = bloomFilterCount("definitely_new");
+
+        rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, randomCpf(), true));
+
+        Assertions.assertEquals(definitelyNew + 1, bloomFilterCount("definitely_new"));
+    }
+
+    @Test
+    void testVote_missingRulingIsRememberedForTheMissTtl() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling(null, "Title 1", "Description 1", LocalDate.now().plusDays(7), RulingStatus.CLOSE, null));
+        Assertions.assertFalse(openRulingRegistry.isOpen(rulingUuid));
+
+        rulingRepository.updateAvailable(rulingUuid, true);
+
+        Assertions.assertFalse(openRulingRegistry.isOpen(rulingUuid));
+        openRulingRegistry.refresh();
+        Assertions.assertTrue(openRulingRegistry.isOpen(rulingUuid));
+    }
+
+    @Test
+    void testVote_closedRulingIsRejectedByRegistry() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        Assertions.assertTrue(openRulingRegistry.isOpen(rulingUuid));
+
+        rulingService.closeRuling(rulingUuid);
+
+        Assertions.assertFalse(openRulingRegistry.isOpen(rulingUuid));
+        final var exception = Assertions.assertThrows(ValidationRulingException.class,
+                () -> rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, randomCpf(), true)));
+        Assertions.assertEquals("The ruling is closed or does not exist. It is not possible to vote.", exception.getMessage());
+    }
+
+    @Test
+    void testRegistry_rulingIsClosedWhenItsEndDatePasses() throws Exception {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().minusDays(1)));
+
+        for (int attempt = 0; attempt < 50 && rulingRepository.findById(rulingUuid).orElseThrow().isAvailable(); attempt++) {
+            Thread.sleep(100);
+        }
+        Assertions.assertFalse(rulingRepository.findById(rulingUuid).orElseThrow().isAvailable());
+        Assertions.assertFalse(openRulingRegistry.isOpen(rulingUuid));
+    }
+
+    @Test
+    void testRegistry_refreshClosesExpiredRulingsWithTheirSnapshot() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling(null, "Title 1", "Description 1", LocalDate.now().minusDays(1), RulingStatus.CLOSE, null));
+        rulingRepository.updateAvailable(rulingUuid, true);
+
+        openRulingRegistry.refresh();
+
+        Assertions.assertFalse(rulingRepository.findById(rulingUuid).orElseThrow().isAvailable());
+        Assertions.assertEquals(Optional.of(VoteTally.EMPTY), rulingRepository.findResult(rulingUuid));
+    }
+
+    @Test
+    void testRegistry_refreshFollowsTheDatabase() {
+        final var openedElsewhere = rulingService.createRuling(new CreateRuling(null, "Title 1", "Description 1", LocalDate.now().plusDays(7), RulingStatus.CLOSE, null));
+        final var closedElsewhere = rulingService.createRuling(new CreateRuling("Title 2", "Description 2", LocalDate.now().plusDays(7)));
+        rulingRepository.updateAvailable(openedElsewhere, true);
+        rulingRepository.updateAvailable(closedElsewhere, false);
+
+        openRulingRegistry.refresh();
+
+        Assertions.assertTrue(openRulingRegistry.isOpen(openedElsewhere));
+        Assertions.assertFalse(openRulingRegistry.isOpen(closedElsewhere));
+    }
+
+    private double bloomFilterCount(String result) {
+        return meterRegistry.get("ruling.vote.bloom_filter").tag("result", result).counter().count();
+    }
+
     private static final int CPF_LENGTH = 11;
 
     private String randomCpf() {
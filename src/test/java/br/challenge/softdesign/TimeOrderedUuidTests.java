@@ -0,0 +1,35 @@
+package br.challenge.softdesign;
+
+import br.challenge.softdesign.domain.adapters.service.TimeOrderedUuid;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedUuidTests {
+
+    @Test
+    void testNext_versionAndVariant() {
+        final var uuid = TimeOrderedUuid.next();
+
+        Assertions.assertEquals(7, uuid.version());
+        Assertions.assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void testNext_startsWithCurrentTime() {
+        final var before = System.currentTimeMillis();
+        final var uuid = TimeOrderedUuid.next();
+        final var after = System.currentTimeMillis();
+
+        final var timestamp = uuid.getMostSignificantBits() >>> 16;
+        Assertions.assertTrue(timestamp >= before && timestamp <= after);
+    }
+
+    @Test
+    void testNext_laterMillisecondSortsAfter() throws InterruptedException {
+        final var first = TimeOrderedUuid.next();
+        Thread.sleep(2);
+        final var second = TimeOrderedUuid.next();
+
+        Assertions.assertTrue(first.toString().compareTo(second.toString()) < 0);
+    }
+}
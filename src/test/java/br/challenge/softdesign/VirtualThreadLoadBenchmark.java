@@ -0,0 +1,143 @@
+package br.challenge.softdesign;
+
+import br.challenge.softdesign.application.controller.CreateRuling;
+import br.challenge.softdesign.domain.adapters.service.RulingService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Fires more concurrent votes than Tomcat has platform threads while every vote is held up by a slow
+ * CPF validator. With virtual threads enabled the requests are not queued behind the pool.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "server.tomcat.threads.max=8",
+        "ruling.cpf-validator.max-in-flight=128",
+        "ruling.cpf-validator.read-timeout=5s",
+        "ruling.cpf-validator.resilience.max-concurrent-calls=128",
+        "ruling.cpf-validator.resilience.slow-call-duration-threshold=5s",
+        "ruling.tally.write-behind.enabled=true",
+        "spring.jpa.show-sql=false"
+})
+class VirtualThreadLoadBenchmark {
+
+    private static final int TOMCAT_THREADS = 8;
+    private static final int CONCURRENT_VOTES = 64;
+    private static final Duration VALIDATOR_LATENCY = Duration.ofSeconds(1);
+
+    private static final AtomicLong CPF_SEQUENCE = new AtomicLong(20_000_000_000L);
+    private static final HttpServer SLOW_CPF_VALIDATOR = startSlowCpfValidator();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RulingService rulingService;
+
+    @DynamicPropertySource
+    static void cpfValidatorUrl(DynamicPropertyRegistry registry) {
+        registry.add("ruling.cpf-validator.url", () -> "http://localhost:" + SLOW_CPF_VALIDATOR.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopSlowCpfValidator() {
+        SLOW_CPF_VALIDATOR.stop(0);
+    }
+
+    @Test
+    void concurrentVotesAreNotCappedByTheTomcatPool() {
+        final var rulingUuid = rulingService.createRuling(
+                new CreateRuling("Benchmark", "Slow CPF validator", LocalDate.now().plusDays(1)));
+
+        try (var client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build()) {
+            // warm-up so connection set-up and JIT are not part of the measurement
+            sendVotes(client, rulingUuid);
+
+            final var start = System.nanoTime();
+            final var responses = sendVotes(client, rulingUuid);
+            final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            final var cappedElapsed = VALIDATOR_LATENCY.multipliedBy(CONCURRENT_VOTES / TOMCAT_THREADS);
+            System.out.printf("votes=%d tomcat.threads.max=%d elapsed=%dms (pool-capped lower bound %dms)%n",
+                    CONCURRENT_VOTES, TOMCAT_THREADS, elapsed.toMillis(), cappedElapsed.toMillis());
+            responses.forEach(response -> Assertions.assertEquals(200, response.join().statusCode()));
+            Assertions.assertTrue(elapsed.compareTo(cappedElapsed.dividedBy(2)) < 0);
+        }
+    }
+
+    private List<CompletableFuture<HttpResponse<Void>>> sendVotes(HttpClient client, UUID rulingUuid) {
+        final var responses = IntStream.range(0, CONCURRENT_VOTES)
+                .mapToObj(i -> client.sendAsync(voteRequest(rulingUuid), HttpResponse.BodyHandlers.discarding()))
+                .toList();
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        return responses;
+    }
+
+    private HttpRequest voteRequest(UUID rulingUuid) {
+        final var body = """
+                {"ruling_id": "%s", "cpf": "%s", "vote_in_favor": true}
+                """.formatted(rulingUuid, nextCpf());
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/ruling/vote"))
+                .header("Content-Type", "application/json")
+                .header("X-API-Version", "1")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String nextCpf() {
+        final var digits = String.valueOf(CPF_SEQUENCE.incrementAndGet());
+        return String.format("%s.%s.%s-%s", digits.substring(0, 3), digits.substring(3, 6), digits.substring(6, 9), digits.substring(9));
+    }
+
+    private static HttpServer startSlowCpfValidator() {
+        try {
+            final var server = HttpServer.create(new InetSocketAddress("localhost", 0), CONCURRENT_VOTES * 2);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/users/", exchange -> {
+                try {
+                    Thread.sleep(VALIDATOR_LATENCY);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                final var body = "{\"status\": \"ABLE_TO_VOTE\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
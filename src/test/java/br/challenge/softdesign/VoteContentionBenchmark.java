@@ -0,0 +1,97 @@
+package br.challenge.softdesign;
+
+import br.challenge.softdesign.application.controller.CreateRuling;
+import br.challenge.softdesign.application.controller.VoteOnRuling;
+import br.challenge.softdesign.domain.adapters.service.RulingService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Compares vote throughput on a single hot ruling between the single-row counter layout
+ * ({@code counter_shards = 1}) and the sharded layout. The contention measured is on PostgreSQL row locks, which
+ * the in-memory H2 database does not reproduce, so it runs against the database in {@code POSTGRES_URL}
+ * (see {@link PostgresTestDatabase}). Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@Tag("postgres")
+@EnabledIfEnvironmentVariable(named = PostgresTestDatabase.URL, matches = ".+")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class VoteContentionBenchmark {
+
+    private static final int THREADS = 32;
+    private static final int VOTES = 4_000;
+    private static final int[] COUNTER_SHARDS = {1, 4, 16};
+
+    private static final AtomicLong CPF_SEQUENCE = new AtomicLong(10_000_000_000L);
+
+    @Autowired
+    private RulingService rulingService;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Test
+    void shardedCountersOutperformTheSingleRow() throws Exception {
+        final var throughputByShards = new LinkedHashMap<Integer, Double>();
+        for (var counterShards : COUNTER_SHARDS) {
+            throughputByShards.put(counterShards, votesPerSecond(counterShards));
+        }
+
+        final var singleRow = throughputByShards.get(1);
+        throughputByShards.forEach((counterShards, throughput) ->
+                System.out.printf("counter_shards=%d threads=%d votes=%d throughput=%.0f votes/s (%.2fx the single row)%n",
+                        counterShards, THREADS, VOTES, throughput, throughput / singleRow));
+        final var sharded = throughputByShards.get(COUNTER_SHARDS[COUNTER_SHARDS.length - 1]);
+        Assertions.assertTrue(sharded > singleRow,
+                () -> String.format("sharded %.0f votes/s, single row %.0f votes/s", sharded, singleRow));
+    }
+
+    private double votesPerSecond(int counterShards) throws Exception {
+        final var rulingUuid = rulingService.createRuling(
+                new CreateRuling("Benchmark", "Hot ruling", LocalDate.now().plusDays(1), counterShards));
+
+        // warm-up so the first layout measured does not pay for JIT and pool start-up
+        vote(rulingUuid, VOTES / 10);
+
+        final var start = System.nanoTime();
+        vote(rulingUuid, VOTES);
+        final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        Assertions.assertEquals(VOTES + VOTES / 10, rulingService.resultOfRuling(rulingUuid).totalVotes());
+        return VOTES / (elapsed.toNanos() / 1e9);
+    }
+
+    private void vote(UUID rulingUuid, int votes) throws Exception {
+        try (var executor = Executors.newFixedThreadPool(THREADS)) {
+            final var tasks = IntStream.range(0, votes)
+                    .mapToObj(i -> (Callable<UUID>) () -> rulingService.tallyVoteForRuling(
+                            new VoteOnRuling(rulingUuid, nextCpf(), i % 2 == 0)))
+                    .toList();
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        }
+    }
+
+    private static String nextCpf() {
+        final var digits = String.valueOf(CPF_SEQUENCE.incrementAndGet());
+        return String.format("%s.%s.%s-%s", digits.substring(0, 3), digits.substring(3, 6), digits.substring(6, 9), digits.substring(9));
+    }
+}
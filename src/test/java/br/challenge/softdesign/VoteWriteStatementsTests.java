@@ -0,0 +1,131 @@
+package br.challenge.softdesign;
+
+import br.challenge.softdesign.application.controller.CreateRuling;
+import br.challenge.softdesign.application.controller.VoteOnRuling;
+import br.challenge.softdesign.domain.adapters.repository.VoteRepository;
+import br.challenge.softdesign.domain.adapters.service.RulingService;
+import br.challenge.softdesign.infrastracture.Vote;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@SpringBootTest
+@Import(VoteWriteStatementsTests.StatementRecordingConfiguration.class)
+class VoteWriteStatementsTests {
+
+    @Autowired
+    private RulingService rulingService;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void save_isOneInsert() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        final var statements = recorded();
+
+        voteRepository.save(vote(rulingUuid, 11122233344L));
+
+        Assertions.assertEquals(1, statements.size(), statements::toString);
+        Assertions.assertTrue(statements.get(0).startsWith("insert into vote"), statements::toString);
+    }
+
+    @Test
+    void saveAll_isOneBatchedInsert() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        final var statements = recorded();
+
+        voteRepository.saveAll(List.of(vote(rulingUuid, 11122233344L), vote(rulingUuid, 55566677788L), vote(rulingUuid, 99988877766L)));
+
+        Assertions.assertEquals(1, statements.size(), statements::toString);
+        Assertions.assertTrue(statements.get(0).startsWith("insert into vote"), statements::toString);
+    }
+
+    @Test
+    void tallyVoteForRuling_neverReadsTheVoteOrTheRuling() {
+        final var rulingUuid = rulingService.createRuling(new CreateRuling("Title 1", "Description 1", LocalDate.now().plusDays(7)));
+        rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, "111.222.333-44", true));
+        final var statements = recorded();
+
+        rulingService.tallyVoteForRuling(new VoteOnRuling(rulingUuid, "555.666.777-88", false));
+
+        Assertions.assertEquals(1, statements.stream().filter(sql -> sql.startsWith("insert")).count(), statements::toString);
+        Assertions.assertEquals(List.of(), statements.stream().filter(sql -> sql.startsWith("select")).toList());
+    }
+
+    private List<String> recorded() {
+        final var recordingDataSource = (RecordingDataSource) dataSource;
+        recordingDataSource.statements.clear();
+        return recordingDataSource.statements;
+    }
+
+    private static Vote vote(UUID rulingUuid, long cpf) {
+        final var vote = new Vote();
+        vote.setUuid(UUID.randomUUID());
+        vote.setRulingId(rulingUuid);
+        vote.setCpf(cpf);
+        vote.setVoteInFavor(true);
+        return vote;
+    }
+
+    @TestConfiguration
+    static class StatementRecordingConfiguration {
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof RecordingDataSource)
+                            ? new RecordingDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    // records the SQL of every prepared statement, which is how Hibernate and JdbcTemplate run their queries
+    static class RecordingDataSource extends DelegatingDataSource {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        RecordingDataSource(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            final var connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, arguments) -> {
+                        if (method.getName().startsWith("prepare") && arguments != null && arguments[0] instanceof String sql) {
+                            statements.add(sql.trim().toLowerCase());
+                        }
+                        try {
+                            return method.invoke(connection, arguments);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package br.challenge.softdesign;
+
+import br.challenge.softdesign.domain.adapters.service.VoterBloomFilter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+class VoterBloomFilterTests {
+
+    private static final int EXPECTED_VOTERS = 10_000;
+
+    @Test
+    void testMightContain_noFalseNegatives() {
+        final var filter = new VoterBloomFilter(EXPECTED_VOTERS, 0.01);
+        IntStream.range(0, EXPECTED_VOTERS).forEach(i -> filter.put(cpf(i)));
+
+        IntStream.range(0, EXPECTED_VOTERS).forEach(i -> Assertions.assertTrue(filter.mightContain(cpf(i))));
+    }
+
+    @Test
+    void testMightContain_falsePositiveRateWithinConfiguredBound() {
+        final var filter = new VoterBloomFilter(EXPECTED_VOTERS, 0.01);
+        IntStream.range(0, EXPECTED_VOTERS).forEach(i -> filter.put(cpf(i)));
+
+        final var falsePositives = IntStream.range(EXPECTED_VOTERS, EXPECTED_VOTERS * 11)
+                .filter(i -> filter.mightContain(cpf(i)))
+                .count();
+
+        Assertions.assertTrue(falsePositives < EXPECTED_VOTERS * 10 * 0.02, () -> falsePositives + " false positives");
+    }
+
+    @Test
+    void testSizeInBytes_boundedByExpectedVoters() {
+        // about 9.6 bits per voter at 1%
+        Assertions.assertTrue(new VoterBloomFilter(EXPECTED_VOTERS, 0.01).sizeInBytes() <= EXPECTED_VOTERS * 10 / 8 + 8);
+        Assertions.assertTrue(new VoterBloomFilter(EXPECTED_VOTERS, 0.001).sizeInBytes() > new VoterBloomFilter(EXPECTED_VOTERS, 0.01).sizeInBytes());
+    }
+
+    private static long cpf(int i) {
+        return i * 7919L;
+    }
+}